@@ -0,0 +1,730 @@
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * A TreeList whose nodes each hold a small sorted chunk of elements instead of a
+ * single element. Every element in a node's left subtree is less than or equal
+ * to every element of its chunk, which in turn are less than or equal to every
+ * element in its right subtree. A node's rank counts the elements in its left
+ * subtree, so index access still takes a single descent.
+ *
+ * When a chunk fills up it is split in two, with the upper half moving to a new
+ * node. When a chunk falls below a quarter full it absorbs the following chunk
+ * if the two fit together, and an empty chunk is removed from the tree. Because
+ * each descent step compares against a whole chunk, a tree of n elements is only
+ * about log(n / chunk size) nodes deep, and iteration walks contiguous arrays.
+ *
+ * @author Tal Belkind
+ *
+ */
+public class ChunkedTreeList<T extends Comparable<T>> extends AbstractCollection<T> {
+	private static final byte LEFT = -1; // balance code for a node whose left subtree is taller
+	private static final byte SAME = 0; // balance code for a node whose subtrees are the same height
+	private static final byte RIGHT = 1; // balance code for a node whose right subtree is taller
+	private static final int MAX_HEIGHT = 64; // upper bound on the height of any AVL tree of int size
+	private static final int DEFAULT_CHUNK_CAPACITY = 64; // elements per chunk unless specified
+
+	private final Node NULL_NODE = new Node(); // Node whose values are null to avoid checking for null errors
+	private final int chunkCapacity; // maximum number of elements in a chunk
+	private Node root; // the root node of the ChunkedTreeList
+	private int size; // the current size of the ChunkedTreeList
+	private boolean heightChanged; // whether the subtree being unwound changed height
+	private boolean removed; // whether the current removal found its element
+
+	/**
+	 * Construct an empty ChunkedTreeList with the default chunk capacity
+	 */
+	public ChunkedTreeList() {
+		this(DEFAULT_CHUNK_CAPACITY);
+	}
+
+	/**
+	 * Construct an empty ChunkedTreeList
+	 *
+	 * @param chunkCapacity the maximum number of elements held by each node
+	 * @throws IllegalArgumentException if the capacity is less than 4
+	 */
+	public ChunkedTreeList(int chunkCapacity) {
+		if (chunkCapacity < 4) {
+			throw new IllegalArgumentException("Chunk capacity must be at least 4: " + chunkCapacity);
+		}
+		this.chunkCapacity = chunkCapacity;
+		this.root = NULL_NODE;
+	}
+
+	/**
+	 * Construct a ChunkedTreeList with the default chunk capacity, containing
+	 * every element of the given collection
+	 *
+	 * @param c the collection whose elements the ChunkedTreeList will contain
+	 */
+	public ChunkedTreeList(Collection<? extends T> c) {
+		this();
+		addAll(c);
+	}
+
+	/**
+	 * Determines the size of the list
+	 *
+	 * @return the number of elements in the list
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Determines if the list is empty
+	 *
+	 * @return true if the list is empty, otherwise false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the list, making the root simply a null node.
+	 */
+	@Override
+	public void clear() {
+		root = NULL_NODE;
+		size = 0;
+	}
+
+	/**
+	 * Adds a new element to the list. Its location in the tree will be based on
+	 * the natural ordering of the element.
+	 *
+	 * @param e the element to add to the tree
+	 * @return true, as the list always accepts the element
+	 */
+	@Override
+	public boolean add(T e) {
+		heightChanged = false;
+		root = add(root, e);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes an object from the list. Throws ClassCastException if the type of
+	 * the input is invalid.
+	 *
+	 * @param o the object to remove from the list
+	 * @return true if an element was removed, otherwise false
+	 * @throws ClassCastException if the type of the input is not the same as the
+	 *                            data type of the list.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean remove(Object o) throws ClassCastException {
+		heightChanged = false;
+		removed = false;
+		root = remove(root, (T) o);
+		if (removed) {
+			size--;
+		}
+		return removed;
+	}
+
+	/**
+	 * Determines if the list contains the specified object. Throws
+	 * ClassCastException if o is not of the correct type.
+	 *
+	 * @param o the object to check for existence in the list
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean contains(Object o) throws ClassCastException {
+		T element = (T) o;
+		Node node = root;
+		while (node != NULL_NODE) {
+			if (element.compareTo(node.first()) < 0) {
+				node = node.left;
+			} else if (element.compareTo(node.last()) > 0) {
+				node = node.right;
+			} else {
+				return node.indexOf(element) >= 0;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Retrieves an element at a specific position
+	 *
+	 * @param pos position in the list
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException if the given position is outside the range
+	 *                                   of the list
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		Node node = root;
+		while (true) {
+			if (pos < node.rank) {
+				node = node.left;
+			} else if (pos < node.rank + node.count) {
+				return (T) node.items[pos - node.rank];
+			} else {
+				pos -= node.rank + node.count;
+				node = node.right;
+			}
+		}
+	}
+
+	/**
+	 * Creates a new Object array containing the elements of the list, copied a
+	 * chunk at a time
+	 *
+	 * @return Object array containing all elements of the list in order
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] a = new Object[size];
+		int i = 0;
+		Node[] stack = newStack();
+		int depth = 0;
+		Node current = root;
+		while (current != NULL_NODE || depth > 0) {
+			while (current != NULL_NODE) {
+				stack[depth++] = current;
+				current = current.left;
+			}
+			Node node = stack[--depth];
+			System.arraycopy(node.items, 0, a, i, node.count);
+			i += node.count;
+			current = node.right;
+		}
+		return a;
+	}
+
+	/**
+	 * Performs an action for each element of the list in order, walking each chunk
+	 * directly
+	 *
+	 * @param action the action to perform
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		Node[] stack = newStack();
+		int depth = 0;
+		Node current = root;
+		while (current != NULL_NODE || depth > 0) {
+			while (current != NULL_NODE) {
+				stack[depth++] = current;
+				current = current.left;
+			}
+			Node node = stack[--depth];
+			for (int i = 0; i < node.count; i++) {
+				action.accept((T) node.items[i]);
+			}
+			current = node.right;
+		}
+	}
+
+	/**
+	 * @return a new lazy in-order iterator of the list
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new LazyInOrderIterator();
+	}
+
+	/**
+	 * Creates an array large enough to hold any root-to-leaf path of the tree
+	 *
+	 * @return a new array of MAX_HEIGHT nodes
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Node[] newStack() {
+		return (Node[]) new ChunkedTreeList.Node[MAX_HEIGHT];
+	}
+
+	/**
+	 * Adds an element to a subtree, splitting the chunk it lands in if full
+	 *
+	 * @param node the root of the subtree
+	 * @param e    the element to add
+	 * @return the new root of the subtree
+	 */
+	private Node add(Node node, T e) {
+		if (node == NULL_NODE) {
+			heightChanged = true;
+			Node leaf = new Node(chunkCapacity);
+			leaf.insert(0, e);
+			return leaf;
+		}
+		if (node.left != NULL_NODE && e.compareTo(node.first()) < 0) {
+			node.rank++;
+			node.left = add(node.left, e);
+			return heightChanged ? grewLeft(node) : node;
+		}
+		if (node.right != NULL_NODE && e.compareTo(node.last()) > 0) {
+			node.right = add(node.right, e);
+			return heightChanged ? grewRight(node) : node;
+		}
+		int pos = node.insertionPoint(e);
+		if (node.count < chunkCapacity) {
+			node.insert(pos, e);
+			return node;
+		}
+		// split the full chunk, moving its upper half into a successor node
+		Node upper = node.splitUpperHalf(chunkCapacity);
+		if (pos <= node.count) {
+			node.insert(pos, e);
+		} else {
+			upper.insert(pos - node.count, e);
+		}
+		node.right = insertMin(node.right, upper);
+		return heightChanged ? grewRight(node) : node;
+	}
+
+	/**
+	 * Inserts a node before every other node of a subtree
+	 *
+	 * @param node    the root of the subtree
+	 * @param newNode the node to insert
+	 * @return the new root of the subtree
+	 */
+	private Node insertMin(Node node, Node newNode) {
+		if (node == NULL_NODE) {
+			heightChanged = true;
+			return newNode;
+		}
+		node.rank += newNode.count;
+		node.left = insertMin(node.left, newNode);
+		return heightChanged ? grewLeft(node) : node;
+	}
+
+	/**
+	 * Removes one occurrence of an element from a subtree, merging or removing its
+	 * chunk as it empties
+	 *
+	 * @param node the root of the subtree
+	 * @param e    the element to remove
+	 * @return the new root of the subtree
+	 */
+	private Node remove(Node node, T e) {
+		if (node == NULL_NODE) {
+			return NULL_NODE;
+		}
+		if (e.compareTo(node.first()) < 0) {
+			node.left = remove(node.left, e);
+			if (removed) {
+				node.rank--;
+			}
+			return heightChanged ? shrankLeft(node) : node;
+		}
+		if (e.compareTo(node.last()) > 0) {
+			node.right = remove(node.right, e);
+			return heightChanged ? shrankRight(node) : node;
+		}
+		int index = node.indexOf(e);
+		if (index < 0) {
+			return node;
+		}
+		removed = true;
+		node.delete(index);
+		if (node.count == 0) {
+			heightChanged = true;
+			if (node.left == NULL_NODE) {
+				return node.right;
+			}
+			if (node.right == NULL_NODE) {
+				return node.left;
+			}
+			// take over the successor's chunk, then remove the successor
+			Node successor = min(node.right);
+			node.items = successor.items;
+			node.count = successor.count;
+			node.right = removeMin(node.right, successor.count);
+			return heightChanged ? shrankRight(node) : node;
+		}
+		if (node.count < chunkCapacity / 4 && node.right != NULL_NODE) {
+			// absorb the successor's chunk if the two fit in one
+			Node successor = min(node.right);
+			if (node.count + successor.count <= chunkCapacity) {
+				System.arraycopy(successor.items, 0, node.items, node.count, successor.count);
+				node.count += successor.count;
+				node.right = removeMin(node.right, successor.count);
+				return heightChanged ? shrankRight(node) : node;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Finds the leftmost node of a non-empty subtree
+	 *
+	 * @param node the root of the subtree
+	 * @return the node holding the subtree's smallest elements
+	 */
+	private Node min(Node node) {
+		while (node.left != NULL_NODE) {
+			node = node.left;
+		}
+		return node;
+	}
+
+	/**
+	 * Removes the leftmost node of a subtree
+	 *
+	 * @param node  the root of the subtree
+	 * @param count the number of elements in the node being removed
+	 * @return the new root of the subtree
+	 */
+	private Node removeMin(Node node, int count) {
+		if (node.left == NULL_NODE) {
+			heightChanged = true;
+			return node.right;
+		}
+		node.rank -= count;
+		node.left = removeMin(node.left, count);
+		return heightChanged ? shrankLeft(node) : node;
+	}
+
+	/**
+	 * Updates balance codes after the left subtree grew taller
+	 *
+	 * @param node the node whose left subtree grew
+	 * @return the new root of the subtree
+	 */
+	private Node grewLeft(Node node) {
+		if (node.balance == RIGHT) {
+			node.balance = SAME;
+			heightChanged = false;
+		} else if (node.balance == SAME) {
+			node.balance = LEFT;
+		} else {
+			heightChanged = false;
+			return fixLeftHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the right subtree grew taller
+	 *
+	 * @param node the node whose right subtree grew
+	 * @return the new root of the subtree
+	 */
+	private Node grewRight(Node node) {
+		if (node.balance == LEFT) {
+			node.balance = SAME;
+			heightChanged = false;
+		} else if (node.balance == SAME) {
+			node.balance = RIGHT;
+		} else {
+			heightChanged = false;
+			return fixRightHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the left subtree became shorter
+	 *
+	 * @param node the node whose left subtree shrank
+	 * @return the new root of the subtree
+	 */
+	private Node shrankLeft(Node node) {
+		if (node.balance == LEFT) {
+			node.balance = SAME;
+		} else if (node.balance == SAME) {
+			node.balance = RIGHT;
+			heightChanged = false;
+		} else {
+			return fixRightHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the right subtree became shorter
+	 *
+	 * @param node the node whose right subtree shrank
+	 * @return the new root of the subtree
+	 */
+	private Node shrankRight(Node node) {
+		if (node.balance == RIGHT) {
+			node.balance = SAME;
+		} else if (node.balance == SAME) {
+			node.balance = LEFT;
+			heightChanged = false;
+		} else {
+			return fixLeftHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Rotates a node whose left subtree is two levels taller than its right. If
+	 * the rotation leaves the subtree height unchanged, heightChanged is cleared.
+	 *
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private Node fixLeftHeavy(Node node) {
+		Node child = node.left;
+		if (child.balance == RIGHT) {
+			Node grandchild = child.right;
+			node.left = rotateLeft(child);
+			rotateRight(node);
+			node.balance = grandchild.balance == LEFT ? RIGHT : SAME;
+			child.balance = grandchild.balance == RIGHT ? LEFT : SAME;
+			grandchild.balance = SAME;
+			return grandchild;
+		}
+		rotateRight(node);
+		if (child.balance == SAME) {
+			node.balance = LEFT;
+			child.balance = RIGHT;
+			heightChanged = false;
+		} else {
+			node.balance = SAME;
+			child.balance = SAME;
+		}
+		return child;
+	}
+
+	/**
+	 * Rotates a node whose right subtree is two levels taller than its left. If
+	 * the rotation leaves the subtree height unchanged, heightChanged is cleared.
+	 *
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private Node fixRightHeavy(Node node) {
+		Node child = node.right;
+		if (child.balance == LEFT) {
+			Node grandchild = child.left;
+			node.right = rotateRight(child);
+			rotateLeft(node);
+			node.balance = grandchild.balance == RIGHT ? LEFT : SAME;
+			child.balance = grandchild.balance == LEFT ? RIGHT : SAME;
+			grandchild.balance = SAME;
+			return grandchild;
+		}
+		rotateLeft(node);
+		if (child.balance == SAME) {
+			node.balance = RIGHT;
+			child.balance = LEFT;
+			heightChanged = false;
+		} else {
+			node.balance = SAME;
+			child.balance = SAME;
+		}
+		return child;
+	}
+
+	/**
+	 * Performs a single right rotation, leaving balance codes to the caller
+	 *
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private Node rotateRight(Node parent) {
+		Node child = parent.left;
+		parent.left = child.right;
+		child.right = parent;
+		parent.rank -= child.rank + child.count;
+		return child;
+	}
+
+	/**
+	 * Performs a single left rotation, leaving balance codes to the caller
+	 *
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private Node rotateLeft(Node parent) {
+		Node child = parent.right;
+		parent.right = child.left;
+		child.left = parent;
+		child.rank += parent.rank + parent.count;
+		return child;
+	}
+
+	/**
+	 * A node in a height-balanced binary tree with rank, holding a sorted chunk of
+	 * elements
+	 */
+	private class Node {
+		private Object[] items; // the sorted elements of this chunk
+		private int count; // the number of elements in use in items
+		private Node left, right; // the left and right subtrees of this node
+		private int rank; // the number of elements in this node's left subtree
+		private byte balance; // the balance of this node (LEFT, SAME or RIGHT)
+
+		/**
+		 * Creates a new null node, whose chunk, left, and right nodes are null.
+		 */
+		private Node() {
+		}
+
+		/**
+		 * Creates an empty chunk node with left and right null nodes
+		 *
+		 * @param capacity the maximum number of elements in the chunk
+		 */
+		private Node(int capacity) {
+			this.items = new Object[capacity];
+			this.left = NULL_NODE;
+			this.right = NULL_NODE;
+		}
+
+		/**
+		 * @return the smallest element of this chunk
+		 */
+		@SuppressWarnings("unchecked")
+		private T first() {
+			return (T) items[0];
+		}
+
+		/**
+		 * @return the largest element of this chunk
+		 */
+		@SuppressWarnings("unchecked")
+		private T last() {
+			return (T) items[count - 1];
+		}
+
+		/**
+		 * Finds the position after every element of this chunk that is less than or
+		 * equal to the given element
+		 *
+		 * @param e the element being inserted
+		 * @return the position at which to insert e
+		 */
+		@SuppressWarnings("unchecked")
+		private int insertionPoint(T e) {
+			int lo = 0;
+			int hi = count;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (e.compareTo((T) items[mid]) < 0) {
+					hi = mid;
+				} else {
+					lo = mid + 1;
+				}
+			}
+			return lo;
+		}
+
+		/**
+		 * Finds an element within this chunk
+		 *
+		 * @param e the element to find
+		 * @return the position of an element equal to e, or -1 if there is none
+		 */
+		@SuppressWarnings("unchecked")
+		private int indexOf(T e) {
+			int lo = 0;
+			int hi = count - 1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				int comparison = e.compareTo((T) items[mid]);
+				if (comparison == 0) {
+					return mid;
+				} else if (comparison < 0) {
+					hi = mid - 1;
+				} else {
+					lo = mid + 1;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Inserts an element into this chunk, which must not be full
+		 *
+		 * @param pos the position to insert at
+		 * @param e   the element to insert
+		 */
+		private void insert(int pos, T e) {
+			System.arraycopy(items, pos, items, pos + 1, count - pos);
+			items[pos] = e;
+			count++;
+		}
+
+		/**
+		 * Deletes an element from this chunk
+		 *
+		 * @param pos the position of the element to delete
+		 */
+		private void delete(int pos) {
+			count--;
+			System.arraycopy(items, pos + 1, items, pos, count - pos);
+			items[count] = null;
+		}
+
+		/**
+		 * Moves the upper half of this chunk into a new node
+		 *
+		 * @param capacity the capacity of the new node's chunk
+		 * @return a new node holding the upper half of this chunk
+		 */
+		private Node splitUpperHalf(int capacity) {
+			Node upper = new Node(capacity);
+			int keep = count / 2;
+			upper.count = count - keep;
+			System.arraycopy(items, keep, upper.items, 0, upper.count);
+			Arrays.fill(items, keep, count, null);
+			count = keep;
+			return upper;
+		}
+	}
+
+	/**
+	 * Lazy in-order iterator implementation, walking a chunk at a time
+	 */
+	private class LazyInOrderIterator implements Iterator<T> {
+		private final Node[] stack = newStack();
+		private int depth;
+		private Node current = root;
+		private Node chunk; // the node whose chunk is being walked
+		private int index; // the position of the next element within chunk
+
+		/**
+		 * @return true if the list has a next element to iterate over, otherwise
+		 *         false
+		 */
+		@Override
+		public boolean hasNext() {
+			return (chunk != null && index < chunk.count) || current != NULL_NODE || depth > 0;
+		}
+
+		/**
+		 * Gets the subsequent element of the list
+		 *
+		 * @return the next element of the list
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (chunk == null || index == chunk.count) {
+				if (current == NULL_NODE && depth == 0) {
+					throw new NoSuchElementException();
+				}
+				while (current != NULL_NODE) {
+					stack[depth++] = current;
+					current = current.left;
+				}
+				chunk = stack[--depth];
+				current = chunk.right;
+				index = 0;
+			}
+			return (T) chunk.items[index++];
+		}
+	}
+}
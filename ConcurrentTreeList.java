@@ -0,0 +1,317 @@
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe TreeList for many readers and a single writer at a time. Writes
+ * are serialized on a lock and applied to a private TreeList; once a write (or
+ * a batch of writes, through update) completes, an immutable snapshot of the
+ * result is published through a volatile reference. Reads never take the lock:
+ * get, contains, size and iteration all run against the most recently
+ * published snapshot, so they never block and scale with the number of reader
+ * threads.
+ *
+ * Publishing a snapshot takes O(1) time, and each write after a publish copies
+ * only the O(log(n)) nodes on its path, so readers holding an older snapshot
+ * are never disturbed. Iterators are consistent views of the snapshot that was
+ * current when they were created.
+ *
+ * @author Tal Belkind
+ *
+ */
+public class ConcurrentTreeList<T> extends AbstractCollection<T> {
+	private final Object writeLock = new Object(); // serializes all writers
+	private TreeList<T> writer; // the TreeList that writes are applied to, guarded by writeLock
+	private volatile TreeList<T> published; // the latest immutable snapshot, read without locking
+
+	/**
+	 * Construct an empty ConcurrentTreeList
+	 */
+	public ConcurrentTreeList() {
+		writer = new TreeList<T>();
+		published = writer.snapshot();
+	}
+
+	/**
+	 * Construct an empty ConcurrentTreeList sorted by the given Comparator
+	 *
+	 * @param comparator the ordering of the elements, or null for natural ordering
+	 */
+	public ConcurrentTreeList(Comparator<? super T> comparator) {
+		writer = new TreeList<T>(comparator);
+		published = writer.snapshot();
+	}
+
+	/**
+	 * Construct a ConcurrentTreeList containing every element of the given
+	 * collection
+	 *
+	 * @param c the collection whose elements the ConcurrentTreeList will contain
+	 */
+	public ConcurrentTreeList(Collection<? extends T> c) {
+		writer = new TreeList<T>(c);
+		published = writer.snapshot();
+	}
+
+	/**
+	 * Returns the most recently published contents of the list. The result is
+	 * immutable and will not change as further writes are published.
+	 *
+	 * @return an immutable TreeList holding the latest published contents
+	 */
+	public TreeList<T> snapshot() {
+		return published;
+	}
+
+	/**
+	 * Applies a batch of modifications while holding the write lock, then
+	 * publishes the result once. Readers see either none or all of the batch: if
+	 * the batch throws, the modifications it made are discarded and nothing is
+	 * published.
+	 *
+	 * @param batch the modifications to apply to the underlying TreeList, which
+	 *              must not be retained after the batch returns
+	 */
+	public void update(Consumer<? super TreeList<T>> batch) {
+		synchronized (writeLock) {
+			try {
+				batch.accept(writer);
+			} catch (Throwable t) {
+				rollback();
+				throw t;
+			}
+			published = writer.snapshot();
+		}
+	}
+
+	/**
+	 * Discards every unpublished modification by restarting the writer from the
+	 * latest published snapshot. Must be called while holding writeLock.
+	 */
+	private void rollback() {
+		writer = published.mutableCopy();
+	}
+
+	/**
+	 * Adds a new element to the list and publishes the result
+	 *
+	 * @param e the element to add
+	 * @return true if the list was modified
+	 */
+	@Override
+	public boolean add(T e) {
+		synchronized (writeLock) {
+			boolean modified = writer.add(e);
+			published = writer.snapshot();
+			return modified;
+		}
+	}
+
+	/**
+	 * Adds every element of a collection to the list and publishes the result
+	 * once. If an element cannot be added, none of them are.
+	 *
+	 * @param c the collection to add all elements from
+	 * @return true if the list was modified
+	 */
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		synchronized (writeLock) {
+			boolean modified;
+			try {
+				modified = writer.addAll(c);
+			} catch (Throwable t) {
+				rollback();
+				throw t;
+			}
+			published = writer.snapshot();
+			return modified;
+		}
+	}
+
+	/**
+	 * Removes an object from the list and publishes the result
+	 *
+	 * @param o the object to remove
+	 * @return true if an element was removed
+	 * @throws ClassCastException if the type of the input is not the same as the
+	 *                            data type of the list.
+	 */
+	@Override
+	public boolean remove(Object o) throws ClassCastException {
+		synchronized (writeLock) {
+			boolean modified = writer.remove(o);
+			if (modified) {
+				published = writer.snapshot();
+			}
+			return modified;
+		}
+	}
+
+	/**
+	 * Removes every element that satisfies a predicate and publishes the result
+	 *
+	 * @param filter the predicate selecting the elements to remove
+	 * @return true if any element was removed
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		synchronized (writeLock) {
+			boolean modified = writer.removeIf(filter);
+			if (modified) {
+				published = writer.snapshot();
+			}
+			return modified;
+		}
+	}
+
+	/**
+	 * Removes every element contained in a collection and publishes the result
+	 *
+	 * @param c the collection of elements to remove
+	 * @return true if any element was removed
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		synchronized (writeLock) {
+			boolean modified = writer.removeAll(c);
+			if (modified) {
+				published = writer.snapshot();
+			}
+			return modified;
+		}
+	}
+
+	/**
+	 * Removes every element not contained in a collection and publishes the
+	 * result
+	 *
+	 * @param c the collection of elements to keep
+	 * @return true if any element was removed
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		synchronized (writeLock) {
+			boolean modified = writer.retainAll(c);
+			if (modified) {
+				published = writer.snapshot();
+			}
+			return modified;
+		}
+	}
+
+	/**
+	 * Clears the list and publishes the result
+	 */
+	@Override
+	public void clear() {
+		synchronized (writeLock) {
+			writer.clear();
+			published = writer.snapshot();
+		}
+	}
+
+	/**
+	 * Determines the size of the latest published contents
+	 *
+	 * @return the number of elements in the list
+	 */
+	@Override
+	public int size() {
+		return published.size();
+	}
+
+	/**
+	 * Determines if the latest published contents are empty
+	 *
+	 * @return true if the list is empty, otherwise false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return published.isEmpty();
+	}
+
+	/**
+	 * Determines if the latest published contents contain an object
+	 *
+	 * @param o the object to look for
+	 * @return true if the object is in the list, otherwise false
+	 * @throws ClassCastException if the type of the input is not the same as the
+	 *                            data type of the list.
+	 */
+	@Override
+	public boolean contains(Object o) throws ClassCastException {
+		return published.contains(o);
+	}
+
+	/**
+	 * Retrieves an element at a specific position of the latest published
+	 * contents
+	 *
+	 * @param pos position in the list
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException if the given position is outside the range
+	 *                                   of the list
+	 */
+	public T get(int pos) throws IndexOutOfBoundsException {
+		return published.get(pos);
+	}
+
+	/**
+	 * @return an iterator over the contents published when it was created
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return published.iterator();
+	}
+
+	/**
+	 * @return a Spliterator over the contents published when it was created
+	 */
+	@Override
+	public Spliterator<T> spliterator() {
+		return published.spliterator();
+	}
+
+	/**
+	 * Performs an action for each element of the latest published contents
+	 *
+	 * @param action the action to perform
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		published.forEach(action);
+	}
+
+	/**
+	 * @return an array containing the latest published contents
+	 */
+	@Override
+	public Object[] toArray() {
+		return published.toArray();
+	}
+
+	/**
+	 * Copies the latest published contents into an array of the given type
+	 *
+	 * @param a an array of the type to return, used if it is large enough
+	 * @return an array containing the latest published contents
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public <E> E[] toArray(E[] a) {
+		return (E[]) published.toArray(a);
+	}
+
+	/**
+	 * @return an array-formatted string of the latest published contents
+	 */
+	@Override
+	public String toString() {
+		return published.toString();
+	}
+}
@@ -0,0 +1,483 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * An int-specialized TreeList. Elements are stored unboxed and compared with
+ * the primitive comparison operators, so no element is ever boxed on the hot
+ * path. Like TreeList, it is a sorted list backed by an AVL tree with rank,
+ * allowing duplicates and O(log(n)) insertion, deletion, contains, and index
+ * access.
+ *
+ * @author Tal Belkind
+ *
+ */
+public class IntTreeList {
+	private static final byte LEFT = -1; // balance code for a node whose left subtree is taller
+	private static final byte SAME = 0; // balance code for a node whose subtrees are the same height
+	private static final byte RIGHT = 1; // balance code for a node whose right subtree is taller
+	private static final int MAX_HEIGHT = 64; // upper bound on the height of any AVL tree of int size
+	private static final Node NULL_NODE = new Node(); // shared sentinel node to avoid checking for null
+
+	private Node root; // the root node of the IntTreeList
+	private int size; // the current size of the IntTreeList
+	private boolean heightChanged; // whether the subtree being unwound changed height
+	private boolean removed; // whether the current removal found its element
+
+	/**
+	 * Construct an empty IntTreeList
+	 */
+	public IntTreeList() {
+		root = NULL_NODE;
+	}
+
+	/**
+	 * Determines the size of the list
+	 * 
+	 * @return the number of elements in the list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Determines if the list is empty
+	 * 
+	 * @return true if the list is empty, otherwise false
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes every element from the list
+	 */
+	public void clear() {
+		root = NULL_NODE;
+		size = 0;
+	}
+
+	/**
+	 * Adds a new element to the list. Its location is based on its numeric order.
+	 * 
+	 * @param e the element to add
+	 * @return true, as the list always accepts the element
+	 */
+	public boolean add(int e) {
+		heightChanged = false;
+		root = add(root, e);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes one occurrence of an element from the list
+	 * 
+	 * @param e the element to remove
+	 * @return true if an element was removed, otherwise false
+	 */
+	public boolean remove(int e) {
+		heightChanged = false;
+		removed = false;
+		root = remove(root, e);
+		if (removed) {
+			size--;
+		}
+		return removed;
+	}
+
+	/**
+	 * Determines if the list contains an element
+	 * 
+	 * @param e the element to look for
+	 * @return true if the element is in the list, otherwise false
+	 */
+	public boolean contains(int e) {
+		Node node = root;
+		while (node != NULL_NODE) {
+			if (e < node.data) {
+				node = node.left;
+			} else if (e > node.data) {
+				node = node.right;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Retrieves an element at a specific position
+	 * 
+	 * @param pos position in the list
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException if the given position is outside the range
+	 *                                   of the list
+	 */
+	public int get(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		Node node = root;
+		while (pos != node.rank) {
+			if (pos < node.rank) {
+				node = node.left;
+			} else {
+				pos -= node.rank + 1;
+				node = node.right;
+			}
+		}
+		return node.data;
+	}
+
+	/**
+	 * Creates a new array containing the elements of the list in ascending order
+	 * 
+	 * @return an array whose length is equal to the size of the list
+	 */
+	public int[] toArray() {
+		int[] a = new int[size];
+		int i = 0;
+		for (PrimitiveIterator.OfInt it = iterator(); it.hasNext();) {
+			a[i++] = it.nextInt();
+		}
+		return a;
+	}
+
+	/**
+	 * Performs an action for each element of the list in ascending order
+	 * 
+	 * @param action the action to perform
+	 */
+	public void forEach(IntConsumer action) {
+		for (PrimitiveIterator.OfInt it = iterator(); it.hasNext();) {
+			action.accept(it.nextInt());
+		}
+	}
+
+	/**
+	 * @return a new lazy in-order iterator of the list that never boxes
+	 */
+	public PrimitiveIterator.OfInt iterator() {
+		return new LazyInOrderIterator();
+	}
+
+	/**
+	 * returns the string produced by an in-order traversal of the list. The string
+	 * is formatted like an array.
+	 * 
+	 * @return an array-formatted in-order traversal of the list.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (PrimitiveIterator.OfInt it = iterator(); it.hasNext();) {
+			sb.append(it.nextInt());
+			if (it.hasNext()) {
+				sb.append(", ");
+			}
+		}
+		return sb.append("]").toString();
+	}
+
+	/**
+	 * Adds an element to a subtree
+	 * 
+	 * @param node the root of the subtree
+	 * @param e    the element to add
+	 * @return the new root of the subtree
+	 */
+	private Node add(Node node, int e) {
+		if (node == NULL_NODE) {
+			heightChanged = true;
+			return new Node(e);
+		}
+		if (e > node.data) {
+			node.right = add(node.right, e);
+			return heightChanged ? grewRight(node) : node;
+		}
+		node.rank++;
+		node.left = add(node.left, e);
+		return heightChanged ? grewLeft(node) : node;
+	}
+
+	/**
+	 * Removes one occurrence of an element from a subtree
+	 * 
+	 * @param node the root of the subtree
+	 * @param e    the element to remove
+	 * @return the new root of the subtree
+	 */
+	private Node remove(Node node, int e) {
+		if (node == NULL_NODE) {
+			return NULL_NODE;
+		}
+		if (e < node.data) {
+			node.left = remove(node.left, e);
+			if (removed) {
+				node.rank--;
+			}
+			return heightChanged ? shrankLeft(node) : node;
+		}
+		if (e > node.data) {
+			node.right = remove(node.right, e);
+			return heightChanged ? shrankRight(node) : node;
+		}
+		removed = true;
+		heightChanged = true;
+		if (node.left == NULL_NODE) {
+			return node.right;
+		}
+		if (node.right == NULL_NODE) {
+			return node.left;
+		}
+		// replace with the in-order successor, then remove the successor
+		node.right = removeMin(node.right, node);
+		return heightChanged ? shrankRight(node) : node;
+	}
+
+	/**
+	 * Removes the smallest node of a subtree, moving its element into another node
+	 * 
+	 * @param node   the root of the subtree
+	 * @param target the node that receives the removed element
+	 * @return the new root of the subtree
+	 */
+	private Node removeMin(Node node, Node target) {
+		if (node.left == NULL_NODE) {
+			target.data = node.data;
+			return node.right;
+		}
+		node.rank--;
+		node.left = removeMin(node.left, target);
+		return heightChanged ? shrankLeft(node) : node;
+	}
+
+	/**
+	 * Updates balance codes after the left subtree grew taller
+	 * 
+	 * @param node the node whose left subtree grew
+	 * @return the new root of the subtree
+	 */
+	private Node grewLeft(Node node) {
+		if (node.balance == RIGHT) {
+			node.balance = SAME;
+			heightChanged = false;
+		} else if (node.balance == SAME) {
+			node.balance = LEFT;
+		} else {
+			heightChanged = false;
+			return fixLeftHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the right subtree grew taller
+	 * 
+	 * @param node the node whose right subtree grew
+	 * @return the new root of the subtree
+	 */
+	private Node grewRight(Node node) {
+		if (node.balance == LEFT) {
+			node.balance = SAME;
+			heightChanged = false;
+		} else if (node.balance == SAME) {
+			node.balance = RIGHT;
+		} else {
+			heightChanged = false;
+			return fixRightHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the left subtree became shorter
+	 * 
+	 * @param node the node whose left subtree shrank
+	 * @return the new root of the subtree
+	 */
+	private Node shrankLeft(Node node) {
+		if (node.balance == LEFT) {
+			node.balance = SAME;
+		} else if (node.balance == SAME) {
+			node.balance = RIGHT;
+			heightChanged = false;
+		} else {
+			return fixRightHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the right subtree became shorter
+	 * 
+	 * @param node the node whose right subtree shrank
+	 * @return the new root of the subtree
+	 */
+	private Node shrankRight(Node node) {
+		if (node.balance == RIGHT) {
+			node.balance = SAME;
+		} else if (node.balance == SAME) {
+			node.balance = LEFT;
+			heightChanged = false;
+		} else {
+			return fixLeftHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Rotates a node whose left subtree is two levels taller than its right. If
+	 * the rotation leaves the subtree height unchanged, heightChanged is cleared.
+	 * 
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private Node fixLeftHeavy(Node node) {
+		Node child = node.left;
+		if (child.balance == RIGHT) {
+			Node grandchild = child.right;
+			node.left = rotateLeft(child);
+			rotateRight(node);
+			node.balance = grandchild.balance == LEFT ? RIGHT : SAME;
+			child.balance = grandchild.balance == RIGHT ? LEFT : SAME;
+			grandchild.balance = SAME;
+			return grandchild;
+		}
+		rotateRight(node);
+		if (child.balance == SAME) {
+			node.balance = LEFT;
+			child.balance = RIGHT;
+			heightChanged = false;
+		} else {
+			node.balance = SAME;
+			child.balance = SAME;
+		}
+		return child;
+	}
+
+	/**
+	 * Rotates a node whose right subtree is two levels taller than its left. If
+	 * the rotation leaves the subtree height unchanged, heightChanged is cleared.
+	 * 
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private Node fixRightHeavy(Node node) {
+		Node child = node.right;
+		if (child.balance == LEFT) {
+			Node grandchild = child.left;
+			node.right = rotateRight(child);
+			rotateLeft(node);
+			node.balance = grandchild.balance == RIGHT ? LEFT : SAME;
+			child.balance = grandchild.balance == LEFT ? RIGHT : SAME;
+			grandchild.balance = SAME;
+			return grandchild;
+		}
+		rotateLeft(node);
+		if (child.balance == SAME) {
+			node.balance = RIGHT;
+			child.balance = LEFT;
+			heightChanged = false;
+		} else {
+			node.balance = SAME;
+			child.balance = SAME;
+		}
+		return child;
+	}
+
+	/**
+	 * Performs a single right rotation, leaving balance codes to the caller
+	 * 
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateRight(Node parent) {
+		Node child = parent.left;
+		parent.left = child.right;
+		child.right = parent;
+		parent.rank -= child.rank + 1;
+		return child;
+	}
+
+	/**
+	 * Performs a single left rotation, leaving balance codes to the caller
+	 * 
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private static Node rotateLeft(Node parent) {
+		Node child = parent.right;
+		parent.right = child.left;
+		child.left = parent;
+		child.rank += parent.rank + 1;
+		return child;
+	}
+
+	/**
+	 * A node in a height-balanced binary tree with rank, holding an unboxed
+	 * element
+	 */
+	private static final class Node {
+		private int data; // the data contained by this node
+		private Node left, right; // the left and right subtrees of this node
+		private int rank; // the in-order position of this node within its own subtree.
+		private byte balance; // the balance of this node (LEFT, SAME or RIGHT)
+
+		/**
+		 * Creates the null node, whose left and right nodes are null
+		 */
+		private Node() {
+		}
+
+		/**
+		 * Creates a Node with the specified data and left and right null nodes
+		 * 
+		 * @param data the data for this node to contain
+		 */
+		private Node(int data) {
+			this.left = NULL_NODE;
+			this.right = NULL_NODE;
+			this.data = data;
+		}
+	}
+
+	/**
+	 * Lazy in-order iterator implementation, keeping its pending nodes in a
+	 * fixed-size array rather than a Stack
+	 */
+	private class LazyInOrderIterator implements PrimitiveIterator.OfInt {
+		private final Node[] stack = new Node[MAX_HEIGHT];
+		private int depth;
+		private Node current = root;
+
+		/**
+		 * @return true if the list has a next element to iterate over, otherwise
+		 *         false
+		 */
+		@Override
+		public boolean hasNext() {
+			return current != NULL_NODE || depth > 0;
+		}
+
+		/**
+		 * Gets the subsequent element of the list
+		 * 
+		 * @return the next element of the list
+		 */
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			while (current != NULL_NODE) {
+				stack[depth++] = current;
+				current = current.left;
+			}
+			Node node = stack[--depth];
+			current = node.right;
+			return node.data;
+		}
+	}
+}
@@ -0,0 +1,539 @@
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A TreeList whose nodes live in a pool of parallel arrays instead of as
+ * separate objects. A node is an index into those arrays: its element, left and
+ * right children, rank and balance code are all stored at the same position.
+ * Removed nodes are kept on a free list and reused by later insertions.
+ *
+ * Keeping the tree in a handful of arrays means the garbage collector traces a
+ * few large objects instead of one object per element, and a descent through
+ * the tree reads from compact int arrays rather than chasing references to
+ * scattered nodes.
+ *
+ * Like TreeList, it is a sorted list allowing both duplicates and index access,
+ * with O(log(n)) insertion, deletion, and contains. It implements only a subset
+ * of TreeList's API: add, remove, contains, get(int), size, isEmpty, clear and
+ * iteration, for elements ordered by their natural ordering. There are no
+ * Comparator, sorted or copy constructors, no equals or hashCode, and none of
+ * the rank, navigation, range, snapshot or set operations.
+ *
+ * @author Tal Belkind
+ *
+ */
+public class PooledTreeList<T extends Comparable<T>> extends AbstractCollection<T> {
+	private static final byte LEFT = -1; // balance code for a node whose left subtree is taller
+	private static final byte SAME = 0; // balance code for a node whose subtrees are the same height
+	private static final byte RIGHT = 1; // balance code for a node whose right subtree is taller
+	private static final int NULL_NODE = 0; // index of the null node, which is never allocated
+	private static final int MAX_HEIGHT = 64; // upper bound on the height of any AVL tree of int size
+	private static final int DEFAULT_CAPACITY = 16; // initial number of node slots
+
+	private Object[] data; // the element held by each node
+	private int[] left; // the left child of each node, or the next free node if unused
+	private int[] right; // the right child of each node
+	private int[] rank; // the in-order position of each node within its own subtree
+	private byte[] balance; // the balance code of each node
+	private int allocated; // number of node slots ever handed out, including the null node
+	private int free; // head of the list of removed nodes available for reuse
+	private int root; // the root node of the PooledTreeList
+	private int size; // the current size of the PooledTreeList
+	private boolean heightChanged; // whether the subtree being unwound changed height
+	private boolean removed; // whether the current removal found its element
+
+	/**
+	 * Construct an empty PooledTreeList
+	 */
+	public PooledTreeList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Construct an empty PooledTreeList with room for a given number of elements
+	 * before its pool has to grow
+	 *
+	 * @param initialCapacity the number of elements to reserve space for
+	 * @throws IllegalArgumentException if the capacity is negative
+	 */
+	public PooledTreeList(int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+		}
+		int slots = initialCapacity + 1;
+		data = new Object[slots];
+		left = new int[slots];
+		right = new int[slots];
+		rank = new int[slots];
+		balance = new byte[slots];
+		allocated = 1;
+		root = NULL_NODE;
+	}
+
+	/**
+	 * Construct a PooledTreeList containing every element of the given collection
+	 *
+	 * @param c the collection whose elements the PooledTreeList will contain
+	 */
+	public PooledTreeList(Collection<? extends T> c) {
+		this(c.size());
+		addAll(c);
+	}
+
+	/**
+	 * Determines the size of the list
+	 *
+	 * @return the number of elements in the list
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Determines if the list is empty
+	 *
+	 * @return true if the list is empty, otherwise false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Clears the list. The pool keeps its capacity for later insertions.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(data, 0, allocated, null);
+		allocated = 1;
+		free = NULL_NODE;
+		root = NULL_NODE;
+		size = 0;
+	}
+
+	/**
+	 * Adds a new element to the list. Its location in the tree will be based on
+	 * the natural ordering of the element.
+	 *
+	 * @param e the element to add to the tree
+	 * @return true, as the list always accepts the element
+	 */
+	@Override
+	public boolean add(T e) {
+		heightChanged = false;
+		root = add(root, e);
+		size++;
+		return true;
+	}
+
+	/**
+	 * Removes an object from the list. Throws ClassCastException if the type of
+	 * the input is invalid.
+	 *
+	 * @param o the object to remove from the list
+	 * @return true if an element was removed, otherwise false
+	 * @throws ClassCastException if the type of the input is not the same as the
+	 *                            data type of the list.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean remove(Object o) throws ClassCastException {
+		heightChanged = false;
+		removed = false;
+		root = remove(root, (T) o);
+		if (removed) {
+			size--;
+		}
+		return removed;
+	}
+
+	/**
+	 * Determines if the list contains the specified object. Throws
+	 * ClassCastException if o is not of the correct type.
+	 *
+	 * @param o the object to check for existence in the list
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean contains(Object o) throws ClassCastException {
+		T element = (T) o;
+		int node = root;
+		while (node != NULL_NODE) {
+			int comparison = element.compareTo((T) data[node]);
+			if (comparison == 0) {
+				return true;
+			}
+			node = comparison < 0 ? left[node] : right[node];
+		}
+		return false;
+	}
+
+	/**
+	 * Retrieves an element at a specific position
+	 *
+	 * @param pos position in the list
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException if the given position is outside the range
+	 *                                   of the list
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		int node = root;
+		while (pos != rank[node]) {
+			if (pos < rank[node]) {
+				node = left[node];
+			} else {
+				pos -= rank[node] + 1;
+				node = right[node];
+			}
+		}
+		return (T) data[node];
+	}
+
+	/**
+	 * @return a new lazy in-order iterator of the list
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new LazyInOrderIterator();
+	}
+
+	/**
+	 * Allocates a node for an element, reusing a removed node if one is available
+	 *
+	 * @param e the element for the node to hold
+	 * @return the index of the new node
+	 */
+	private int newNode(T e) {
+		int node;
+		if (free != NULL_NODE) {
+			node = free;
+			free = left[node];
+		} else {
+			if (allocated == data.length) {
+				grow();
+			}
+			node = allocated++;
+		}
+		data[node] = e;
+		left[node] = NULL_NODE;
+		right[node] = NULL_NODE;
+		rank[node] = 0;
+		balance[node] = SAME;
+		return node;
+	}
+
+	/**
+	 * Returns a removed node to the free list
+	 *
+	 * @param node the index of the node to release
+	 */
+	private void freeNode(int node) {
+		data[node] = null;
+		left[node] = free;
+		free = node;
+	}
+
+	/**
+	 * Doubles the capacity of the pool
+	 */
+	private void grow() {
+		int capacity = Math.max(2, data.length * 2);
+		data = Arrays.copyOf(data, capacity);
+		left = Arrays.copyOf(left, capacity);
+		right = Arrays.copyOf(right, capacity);
+		rank = Arrays.copyOf(rank, capacity);
+		balance = Arrays.copyOf(balance, capacity);
+	}
+
+	/**
+	 * Adds an element to a subtree
+	 *
+	 * @param node the root of the subtree
+	 * @param e    the element to add
+	 * @return the new root of the subtree
+	 */
+	@SuppressWarnings("unchecked")
+	private int add(int node, T e) {
+		if (node == NULL_NODE) {
+			heightChanged = true;
+			return newNode(e);
+		}
+		if (e.compareTo((T) data[node]) > 0) {
+			int child = add(right[node], e);
+			right[node] = child;
+			return heightChanged ? grewRight(node) : node;
+		}
+		rank[node]++;
+		int child = add(left[node], e);
+		left[node] = child;
+		return heightChanged ? grewLeft(node) : node;
+	}
+
+	/**
+	 * Removes one occurrence of an element from a subtree
+	 *
+	 * @param node the root of the subtree
+	 * @param e    the element to remove
+	 * @return the new root of the subtree
+	 */
+	@SuppressWarnings("unchecked")
+	private int remove(int node, T e) {
+		if (node == NULL_NODE) {
+			return NULL_NODE;
+		}
+		int comparison = e.compareTo((T) data[node]);
+		if (comparison < 0) {
+			int child = remove(left[node], e);
+			left[node] = child;
+			if (removed) {
+				rank[node]--;
+			}
+			return heightChanged ? shrankLeft(node) : node;
+		}
+		if (comparison > 0) {
+			int child = remove(right[node], e);
+			right[node] = child;
+			return heightChanged ? shrankRight(node) : node;
+		}
+		removed = true;
+		heightChanged = true;
+		if (left[node] == NULL_NODE || right[node] == NULL_NODE) {
+			int child = left[node] == NULL_NODE ? right[node] : left[node];
+			freeNode(node);
+			return child;
+		}
+		// replace with the in-order successor, then remove the successor
+		int child = removeMin(right[node], node);
+		right[node] = child;
+		return heightChanged ? shrankRight(node) : node;
+	}
+
+	/**
+	 * Removes the smallest node of a subtree, moving its element into another node
+	 *
+	 * @param node   the root of the subtree
+	 * @param target the node that receives the removed element
+	 * @return the new root of the subtree
+	 */
+	private int removeMin(int node, int target) {
+		if (left[node] == NULL_NODE) {
+			int child = right[node];
+			data[target] = data[node];
+			freeNode(node);
+			return child;
+		}
+		rank[node]--;
+		int child = removeMin(left[node], target);
+		left[node] = child;
+		return heightChanged ? shrankLeft(node) : node;
+	}
+
+	/**
+	 * Updates balance codes after the left subtree grew taller
+	 *
+	 * @param node the node whose left subtree grew
+	 * @return the new root of the subtree
+	 */
+	private int grewLeft(int node) {
+		if (balance[node] == RIGHT) {
+			balance[node] = SAME;
+			heightChanged = false;
+		} else if (balance[node] == SAME) {
+			balance[node] = LEFT;
+		} else {
+			heightChanged = false;
+			return fixLeftHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the right subtree grew taller
+	 *
+	 * @param node the node whose right subtree grew
+	 * @return the new root of the subtree
+	 */
+	private int grewRight(int node) {
+		if (balance[node] == LEFT) {
+			balance[node] = SAME;
+			heightChanged = false;
+		} else if (balance[node] == SAME) {
+			balance[node] = RIGHT;
+		} else {
+			heightChanged = false;
+			return fixRightHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the left subtree became shorter
+	 *
+	 * @param node the node whose left subtree shrank
+	 * @return the new root of the subtree
+	 */
+	private int shrankLeft(int node) {
+		if (balance[node] == LEFT) {
+			balance[node] = SAME;
+		} else if (balance[node] == SAME) {
+			balance[node] = RIGHT;
+			heightChanged = false;
+		} else {
+			return fixRightHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Updates balance codes after the right subtree became shorter
+	 *
+	 * @param node the node whose right subtree shrank
+	 * @return the new root of the subtree
+	 */
+	private int shrankRight(int node) {
+		if (balance[node] == RIGHT) {
+			balance[node] = SAME;
+		} else if (balance[node] == SAME) {
+			balance[node] = LEFT;
+			heightChanged = false;
+		} else {
+			return fixLeftHeavy(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Rotates a node whose left subtree is two levels taller than its right. If
+	 * the rotation leaves the subtree height unchanged, heightChanged is cleared.
+	 *
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private int fixLeftHeavy(int node) {
+		int child = left[node];
+		if (balance[child] == RIGHT) {
+			int grandchild = right[child];
+			left[node] = rotateLeft(child);
+			rotateRight(node);
+			balance[node] = balance[grandchild] == LEFT ? RIGHT : SAME;
+			balance[child] = balance[grandchild] == RIGHT ? LEFT : SAME;
+			balance[grandchild] = SAME;
+			return grandchild;
+		}
+		rotateRight(node);
+		if (balance[child] == SAME) {
+			balance[node] = LEFT;
+			balance[child] = RIGHT;
+			heightChanged = false;
+		} else {
+			balance[node] = SAME;
+			balance[child] = SAME;
+		}
+		return child;
+	}
+
+	/**
+	 * Rotates a node whose right subtree is two levels taller than its left. If
+	 * the rotation leaves the subtree height unchanged, heightChanged is cleared.
+	 *
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private int fixRightHeavy(int node) {
+		int child = right[node];
+		if (balance[child] == LEFT) {
+			int grandchild = left[child];
+			right[node] = rotateRight(child);
+			rotateLeft(node);
+			balance[node] = balance[grandchild] == RIGHT ? LEFT : SAME;
+			balance[child] = balance[grandchild] == LEFT ? RIGHT : SAME;
+			balance[grandchild] = SAME;
+			return grandchild;
+		}
+		rotateLeft(node);
+		if (balance[child] == SAME) {
+			balance[node] = RIGHT;
+			balance[child] = LEFT;
+			heightChanged = false;
+		} else {
+			balance[node] = SAME;
+			balance[child] = SAME;
+		}
+		return child;
+	}
+
+	/**
+	 * Performs a single right rotation, leaving balance codes to the caller
+	 *
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private int rotateRight(int parent) {
+		int child = left[parent];
+		left[parent] = right[child];
+		right[child] = parent;
+		rank[parent] -= rank[child] + 1;
+		return child;
+	}
+
+	/**
+	 * Performs a single left rotation, leaving balance codes to the caller
+	 *
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private int rotateLeft(int parent) {
+		int child = right[parent];
+		right[parent] = left[child];
+		left[child] = parent;
+		rank[child] += rank[parent] + 1;
+		return child;
+	}
+
+	/**
+	 * Lazy in-order iterator implementation, keeping its pending nodes in a
+	 * fixed-size array of node indices
+	 */
+	private class LazyInOrderIterator implements Iterator<T> {
+		private final int[] stack = new int[MAX_HEIGHT];
+		private int depth;
+		private int current = root;
+
+		/**
+		 * @return true if the list has a next element to iterate over, otherwise
+		 *         false
+		 */
+		@Override
+		public boolean hasNext() {
+			return current != NULL_NODE || depth > 0;
+		}
+
+		/**
+		 * Gets the subsequent element of the list
+		 *
+		 * @return the next element of the list
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			while (current != NULL_NODE) {
+				stack[depth++] = current;
+				current = left[current];
+			}
+			int node = stack[--depth];
+			current = right[node];
+			return (T) data[node];
+		}
+	}
+}
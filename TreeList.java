@@ -1,13 +1,28 @@
 import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
-import java.util.Stack;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.StreamSupport;
 
 /**
  * An AVL tree-based implementation of a majority of the Java Collections api. A
  * TreeList is a sorted list, meaning it sorts its elements according to their
- * natural ordering, while allowing both duplicates and index access.
+ * natural ordering, or by a Comparator or a long-valued key given at
+ * construction, while allowing both duplicates and index access.
  * 
  * Adapted from my solution for EditorTrees, the term project in CSSE 230 at
  * Rose-Hulman Institute of Technology.
@@ -15,16 +30,68 @@ import java.util.Stack;
  * @author Tal Belkind
  * 
  */
-public class TreeList<T extends Comparable<T>> extends AbstractCollection<T> {
-	private Node root; // the root node of the TreeList
+public class TreeList<T> extends AbstractCollection<T> {
+	private static final int MAX_HEIGHT = 64; // upper bound on the height of any AVL tree of int size
+	private static final int MAX_SIZE = Node.MAX_RANK + 1; // the packed rank field bounds the number of elements
+	private static final int UNION = 0, INTERSECTION = 1, DIFFERENCE = 2; // set operations for combine
+	private static final int PARALLEL_THRESHOLD = 1 << 15; // elements below which set operations and parallelRemoveIf run sequentially
+	private static final int MERGE_RATIO = 16; // addAll merges a sorted collection only if it is at least 1/MERGE_RATIO of this size
+
+	private Node<T> root; // the root node of the TreeList
 	private int size; // the current size of the TreeList
-	private final Node NULL_NODE = new Node(); // Node whose values are null to avoid checking for null errors
+	private final Node<T> NULL_NODE; // the shared Node whose values are null to avoid checking for null errors
+	private final boolean immutable; // true for snapshots, which reject every modification
+	private final Comparator<? super T> comparator; // the ordering of the elements, or null for natural ordering
+	private final ToLongFunction<? super T> key; // the long key the comparator orders by, if there is one
+	private Object owner; // token marking the nodes this TreeList may modify in place
+	private Node<T>[] path; // reusable buffer recording the descent of an insertion or removal
+	private boolean[] pathLeft; // whether each step of the recorded descent went left
+	private int modCount; // the number of structural modifications, which invalidate cursors and iterators
+	private boolean snapshotIteration; // true if iterators read a frozen snapshot instead of failing fast
 
 	/**
-	 * Construct an empty TreeList
+	 * Construct an empty TreeList sorted by the natural ordering of its elements
 	 */
 	public TreeList() {
+		this((Comparator<? super T>) null, null);
+	}
+
+	/**
+	 * Construct an empty TreeList sorted by the given Comparator. Elements need
+	 * not implement Comparable.
+	 * 
+	 * @param comparator the ordering of the elements, or null for natural ordering
+	 */
+	public TreeList(Comparator<? super T> comparator) {
+		this(comparator, null);
+	}
+
+	/**
+	 * Construct an empty TreeList with the given ordering
+	 * 
+	 * @param comparator the ordering of the elements, or null for natural ordering
+	 * @param key        the long key the comparator orders by, or null
+	 */
+	private TreeList(Comparator<? super T> comparator, ToLongFunction<? super T> key) {
+		NULL_NODE = Node.nil();
 		root = NULL_NODE;
+		immutable = false;
+		owner = new Object();
+		this.comparator = comparator;
+		this.key = key;
+	}
+
+	/**
+	 * Construct an empty TreeList sorted by a long-valued key of its elements.
+	 * Comparing two elements is then a comparison of two primitive longs, with no
+	 * Comparator or Comparable in between.
+	 * 
+	 * @param <T> the type of the elements
+	 * @param key extracts the key of an element
+	 * @return an empty TreeList ordered by ascending key
+	 */
+	public static <T> TreeList<T> comparingLong(ToLongFunction<? super T> key) {
+		return new TreeList<T>(Comparator.comparingLong(key), key);
 	}
 
 	/**
@@ -33,37 +100,313 @@ public class TreeList<T extends Comparable<T>> extends AbstractCollection<T> {
 	 * @param e the element for the root node to contain
 	 */
 	public TreeList(T e) {
-		root = new Node(e);
+		this();
+		root = new Node<>(e, owner);
 		size++;
 	}
 
+	/**
+	 * Construct a TreeList containing every element of the given collection. If
+	 * the collection iterates in ascending order, the tree is built directly as a
+	 * perfectly balanced tree in O(n) time; otherwise the elements are sorted
+	 * first.
+	 * 
+	 * @param c the collection whose elements the TreeList will contain
+	 */
+	public TreeList(Collection<? extends T> c) {
+		this();
+		bulkLoad(c.toArray());
+	}
+
+	/**
+	 * Construct a TreeList containing every element of the given array. If the
+	 * array is already in ascending order, the tree is built directly as a
+	 * perfectly balanced tree in O(n) time; otherwise the elements are sorted
+	 * first. The array itself is not modified.
+	 * 
+	 * @param a the array whose elements the TreeList will contain
+	 */
+	public TreeList(T[] a) {
+		this();
+		bulkLoad(a.clone());
+	}
+
+	/**
+	 * Construct a TreeList containing every remaining element of the given
+	 * iterator. If the iterator returns its elements in ascending order, the tree
+	 * is built directly as a perfectly balanced tree in O(n) time; otherwise the
+	 * elements are sorted first.
+	 * 
+	 * @param it the iterator whose remaining elements the TreeList will contain
+	 */
+	public TreeList(Iterator<? extends T> it) {
+		this();
+		bulkLoad(drain(it));
+	}
+
+	/**
+	 * Replaces the contents of this TreeList with the elements of an array that it
+	 * is free to reorder
+	 * 
+	 * @param a the elements the TreeList will contain
+	 */
+	@SuppressWarnings("unchecked")
+	private void bulkLoad(Object[] a) {
+		checkCapacity(a.length);
+		if (!isSorted(a)) {
+			Arrays.sort(a, (Comparator<Object>) comparator);
+		}
+		this.root = buildBalanced(a, 0, a.length);
+		this.size = a.length;
+	}
+
+	/**
+	 * Copies the remaining elements of an iterator into a new array
+	 * 
+	 * @param it the iterator to drain
+	 * @return an array holding the remaining elements in iteration order
+	 */
+	private static Object[] drain(Iterator<?> it) {
+		ArrayList<Object> list = new ArrayList<Object>();
+		while (it.hasNext()) {
+			list.add(it.next());
+		}
+		return list.toArray();
+	}
+
+	/**
+	 * Compares two elements by the ordering of the TreeList: by key if there is
+	 * one, then by comparator, and otherwise by natural ordering
+	 * 
+	 * @param a the first element
+	 * @param b the second element
+	 * @return a negative integer, zero, or a positive integer as a is less than,
+	 *         equal to, or greater than b
+	 */
+	@SuppressWarnings("unchecked")
+	private int compare(T a, T b) {
+		if (key != null) {
+			return Long.compare(key.applyAsLong(a), key.applyAsLong(b));
+		}
+		if (comparator != null) {
+			return comparator.compare(a, b);
+		}
+		return ((Comparable<? super T>) a).compareTo(b);
+	}
+
+	/**
+	 * Determines if an array is in ascending order by the ordering of the TreeList
+	 * 
+	 * @param a the array to check
+	 * @return true if every element is less than or equal to its successor
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean isSorted(Object[] a) {
+		for (int i = 1; i < a.length; i++) {
+			if (compare((T) a[i - 1], (T) a[i]) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Builds a perfectly balanced subtree from a sorted range of an array, setting
+	 * rank and balance codes directly instead of inserting element by element.
+	 * 
+	 * @param a  the sorted array of elements
+	 * @param lo the first index of the range (inclusive)
+	 * @param hi the last index of the range (exclusive)
+	 * @return the root of the new subtree
+	 */
+	@SuppressWarnings("unchecked")
+	private Node<T> buildBalanced(Object[] a, int lo, int hi) {
+		if (lo >= hi) {
+			return NULL_NODE;
+		}
+		int mid = (lo + hi) >>> 1;
+		Node<T> node = new Node<>((T) a[mid], owner);
+		node.left = buildBalanced(a, lo, mid);
+		node.right = buildBalanced(a, mid + 1, hi);
+		node.setRank(mid - lo);
+		// the left half is never smaller than the right, so it can only tip left
+		if (balancedHeight(mid - lo) > balancedHeight(hi - mid - 1)) {
+			node.setBalance(Node.LEFT);
+		}
+		return node;
+	}
+
+	/**
+	 * Determines the height of a subtree of the given size built by buildBalanced
+	 * 
+	 * @param n the number of nodes in the subtree
+	 * @return the height of the subtree, where an empty subtree has height 0
+	 */
+	private static int balancedHeight(int n) {
+		return 32 - Integer.numberOfLeadingZeros(n);
+	}
+
 	/**
 	 * Make this TreeList be a copy of e, with all new nodes, but the same shape and
-	 * contents. The new Tree will have the same structure, meaning it won't
-	 * necessarily be a complete tree.
+	 * contents. The new Tree will have the same structure and ordering, meaning it
+	 * won't necessarily be a complete tree.
 	 * 
 	 * @param e the TreeList to copy
 	 */
 	public TreeList(TreeList<T> e) {
+		this(e.comparator, e.key);
 		this.root = treeListCopyHelper(e.root);
 	}
 
+	/**
+	 * Construct a TreeList over an existing tree, with the ordering of another
+	 * TreeList. A mutable TreeList gets a fresh owner token, so it copies any node
+	 * of the tree before modifying it.
+	 * 
+	 * @param source    the TreeList whose ordering to use
+	 * @param root      the root of the tree
+	 * @param size      the number of elements in the tree
+	 * @param immutable true to construct a snapshot
+	 */
+	private TreeList(TreeList<T> source, Node<T> root, int size, boolean immutable) {
+		this.NULL_NODE = Node.nil();
+		this.root = root;
+		this.size = size;
+		this.immutable = immutable;
+		this.comparator = source.comparator;
+		this.key = source.key;
+		if (!immutable) {
+			owner = new Object();
+		}
+	}
+
+	/**
+	 * Returns an immutable point-in-time view of this TreeList in O(1) time. The
+	 * snapshot shares every node with this TreeList; afterwards, a modification
+	 * of this TreeList copies the O(log(n)) nodes on its path from the root
+	 * instead of changing shared nodes in place, so the snapshot never observes
+	 * it. Every modification of the snapshot itself throws
+	 * UnsupportedOperationException.
+	 * 
+	 * @return an immutable TreeList with the current contents of this TreeList
+	 */
+	public TreeList<T> snapshot() {
+		if (immutable) {
+			return this;
+		}
+		// every existing node is now shared, so stop modifying them in place
+		owner = new Object();
+		return new TreeList<T>(this, root, size, true);
+	}
+
+	/**
+	 * Creates a modifiable TreeList with the contents of this one in O(1) time. The
+	 * two share every node, and a modification of either copies its path from the
+	 * root instead of changing shared nodes, so neither observes the other. This
+	 * lets ConcurrentTreeList roll its writer back to a published snapshot.
+	 * 
+	 * @return a mutable TreeList with the current contents of this TreeList
+	 */
+	TreeList<T> mutableCopy() {
+		if (!immutable) {
+			// every existing node is now shared, so stop modifying them in place
+			owner = new Object();
+		}
+		return new TreeList<T>(this, root, size, false);
+	}
+
+	/**
+	 * Chooses how iteration behaves when the TreeList is modified partway through.
+	 * By default iterators fail fast, throwing ConcurrentModificationException at
+	 * their next step after a modification they did not make. In snapshot
+	 * iteration mode, each iterator, spliterator or forEach instead reads a
+	 * snapshot taken when it starts. Modifications then copy their path from the
+	 * root rather than changing the nodes being read, so a scan sees exactly the
+	 * elements present when it began and never blocks or fails. Iterators in this
+	 * mode cannot remove elements.
+	 * 
+	 * @param enabled true to iterate over snapshots, false to fail fast
+	 */
+	public void setSnapshotIteration(boolean enabled) {
+		snapshotIteration = enabled;
+	}
+
+	/**
+	 * @return true if iterators read a snapshot taken when they start, false if
+	 *         they fail fast
+	 */
+	public boolean isSnapshotIteration() {
+		return snapshotIteration;
+	}
+
+	/**
+	 * Determines which TreeList a new iterator should read
+	 * 
+	 * @return a snapshot of this TreeList in snapshot iteration mode, otherwise
+	 *         this TreeList
+	 */
+	private TreeList<T> iterationSource() {
+		return snapshotIteration ? snapshot() : this;
+	}
+
+	/**
+	 * Throws ConcurrentModificationException if the TreeList has been modified
+	 * since an iterator last saw it
+	 * 
+	 * @param expectedModCount the modCount the iterator expects
+	 */
+	private void checkModCount(int expectedModCount) {
+		if (modCount != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Returns the Comparator ordering this TreeList, which for a TreeList created
+	 * by comparingLong compares the keys
+	 * 
+	 * @return the Comparator, or null if the elements are in natural ordering
+	 */
+	public Comparator<? super T> comparator() {
+		return comparator;
+	}
+
+	/**
+	 * Throws IllegalStateException if adding the given number of elements would
+	 * exceed the capacity of the TreeList
+	 * 
+	 * @param additional the number of elements about to be added
+	 */
+	private void checkCapacity(int additional) {
+		if (additional > MAX_SIZE - size) {
+			throw new IllegalStateException("TreeList cannot hold more than " + MAX_SIZE + " elements");
+		}
+	}
+
+	/**
+	 * Throws UnsupportedOperationException if this TreeList is a snapshot
+	 */
+	private void checkMutable() {
+		if (immutable) {
+			throw new UnsupportedOperationException("TreeList snapshots are immutable");
+		}
+	}
+
 	/**
 	 * Copies a tree node-for-node
 	 * 
 	 * @param otherTreeNode the subtree to copy
 	 * @return a new Node representing the copied subtree
 	 */
-	private Node treeListCopyHelper(Node otherTreeNode) {
+	private Node<T> treeListCopyHelper(Node<T> otherTreeNode) {
 		if (otherTreeNode == NULL_NODE) {
 			return NULL_NODE;
 		}
-		Node node = new Node(otherTreeNode.data);
+		Node<T> node = new Node<>(otherTreeNode.data, owner);
 		size++;
-		node.rank = otherTreeNode.rank;
+		node.bits = otherTreeNode.bits;
 		node.left = treeListCopyHelper(otherTreeNode.left);
 		node.right = treeListCopyHelper(otherTreeNode.right);
-		node.balance = otherTreeNode.balance;
 		return node;
 	}
 
@@ -76,6 +419,9 @@ public class TreeList<T extends Comparable<T>> extends AbstractCollection<T> {
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder("[");
+		if (root == NULL_NODE) {
+			return sb.append("]").toString();
+		}
 		root.toString(sb);
 		sb.delete(sb.length() - 2, sb.length());
 		sb.append("]");
@@ -94,17 +440,26 @@ public class TreeList<T extends Comparable<T>> extends AbstractCollection<T> {
 
 	/**
 	 * Determines if the TreeList contains the specified object. Throws
-	 * ClassCastException if o is not of the correct type.
+	 * ClassCastException if o cannot be compared with the elements.
 	 * 
 	 * @param o the object to check for existence in the list
 	 */
 	@SuppressWarnings("unchecked")
 	@Override
 	public boolean contains(Object o) throws ClassCastException {
-		if (!root.data.getClass().isInstance(o)) {
-			throw new ClassCastException();
+		if (root == NULL_NODE) {
+			return false;
+		}
+		T element = (T) o;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			int comparison = compare(element, node.data);
+			if (comparison == 0) {
+				return true;
+			}
+			node = comparison < 0 ? node.left : node.right;
 		}
-		return root.contains((T) o);
+		return false;
 	}
 
 	/**
@@ -112,602 +467,2995 @@ public class TreeList<T extends Comparable<T>> extends AbstractCollection<T> {
 	 */
 	@Override
 	public Iterator<T> iterator() {
-		return new LazyInOrderIterator();
+		return iterationSource().new LazyInOrderIterator();
 	}
 
 	/**
-	 * Clears the TreeList, making the root simply a null node.
+	 * Creates a bidirectional iterator over the TreeList starting before its first
+	 * element
+	 * 
+	 * @return a ListIterator starting at position 0
 	 */
-	@Override
-	public void clear() {
-		this.root = NULL_NODE;
+	public ListIterator<T> listIterator() {
+		return iterationSource().new TreeListIterator(0);
 	}
 
 	/**
-	 * Creates a new Object array containing the elements of the TreeList. The type
-	 * of the array is not guaranteed by the method.
+	 * Creates a bidirectional iterator over the TreeList whose first call to next
+	 * returns the element at the given position. The iterator is positioned with
+	 * a single descent from the root, and then moves in either direction in
+	 * amortized O(1) time per element.
 	 * 
-	 * @return Object array containing all elements of the TreeList. The size of the
-	 *         return array is equal to the size of the TreeList.
+	 * @param index the position of the first element to return from next
+	 * @return a ListIterator starting at index
+	 * @throws IndexOutOfBoundsException if index is negative or greater than the
+	 *                                   size of the TreeList
 	 */
-	@Override
-	public Object[] toArray() {
-		Object[] a = new Object[this.size];
-		int i = 0;
-		for (T element : this) {
-			a[i] = element;
-			i++;
+	public ListIterator<T> listIterator(int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
 		}
-		return a;
+		return iterationSource().new TreeListIterator(index);
 	}
 
 	/**
-	 * Creates a new array containing the elements of the TreeList. The type of the
-	 * array is based on the type of the input array.
+	 * Creates a bidirectional iterator over the TreeList whose first call to next
+	 * returns the first element greater than or equal to e, and whose first call
+	 * to previous returns the last element less than e
 	 * 
-	 * @param array of the same type as the TreeList's data.
-	 * @return Object array that can be cast to the inputted type
+	 * @param e the element to start from
+	 * @return a ListIterator starting at the rank of e
 	 */
-	@SuppressWarnings("unchecked")
-	@Override
-	public Object[] toArray(Object[] a) throws ClassCastException {
-		if (!root.data.getClass().isInstance(a.getClass().getComponentType())) {
-			throw new ClassCastException();
-		}
-		if (a.length < size) {
-			a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
-		}
-		if (a.length > size) {
-			a[size] = null;
-		}
-		int i = 0;
-		for (T element : this) {
-			a[i] = element;
-			i++;
-		}
-		return a;
+	public ListIterator<T> iteratorFrom(T e) {
+		TreeList<T> source = iterationSource();
+		return source.new TreeListIterator(source.rank(e));
 	}
 
 	/**
-	 * Determines if every element from the input collection is contained within
-	 * this TreeList. Elements in the collection do not have to be sorted.
+	 * Creates an iterator over the TreeList from its largest element to its
+	 * smallest
 	 * 
-	 * @param c the collection to check
-	 * @return true if every element from the input collection is contained in the
-	 *         TreeList, otherwise false
+	 * @return a new Lazy descending iterator of the TreeList
 	 */
-	@SuppressWarnings("rawtypes")
-	@Override
-	public boolean containsAll(Collection c) {
-		for (Object o : c) {
-			if (!this.contains(o)) {
-				return false;
-			}
-		}
-		return true;
+	public Iterator<T> descendingIterator() {
+		return iterationSource().new DescendingIterator();
 	}
 
 	/**
-	 * Adds all elements from a given input collection to this TreeList. Elements in
-	 * the collection do not have to be sorted. The order in which they were placed
-	 * into the collection will be lost.
+	 * Creates an iterator over the TreeList from a position towards its smallest
+	 * element. Like calls to previous on listIterator(index), the first element
+	 * returned is the one at index - 1. The iterator is positioned with a single
+	 * descent from the root.
 	 * 
-	 * @param c the collection to add all elements from
-	 * @return true if this TreeList was modified as a result of the call, otherwise
-	 *         false
+	 * @param index one past the position of the first element to return
+	 * @return a descending iterator starting below index
+	 * @throws IndexOutOfBoundsException if index is negative or greater than the
+	 *                                   size of the TreeList
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
-	@Override
-	public boolean addAll(Collection c) throws ClassCastException {
-		if (c.size() <= 0) {
-			return false;
-		}
-		for (Object o : c) {
-			if (!root.data.getClass().isInstance(o)) {
-				throw new ClassCastException();
-			}
-			this.add((T) o);
+	public Iterator<T> descendingIterator(int index) throws IndexOutOfBoundsException {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
 		}
-		return true;
+		return iterationSource().new DescendingIterator(index - 1);
 	}
 
 	/**
-	 * Determines the size of the tree
+	 * Creates an iterator over the TreeList from the last element less than or
+	 * equal to e towards its smallest element
 	 * 
-	 * @return the number of nodes in this tree, not including any instances of
-	 *         NULL_NODE
+	 * @param e the element to start from
+	 * @return a descending iterator starting at the last element not greater than e
 	 */
-	public int size() {
-		return this.size;
+	public Iterator<T> descendingIteratorFrom(T e) {
+		TreeList<T> source = iterationSource();
+		return source.new DescendingIterator(source.upperBound(e) - 1);
 	}
 
 	/**
-	 * Adds a new element to the TreeList. It's location in the tree will be based
-	 * on the natural ordering of the element.
+	 * Creates a live view of the TreeList in reverse order. Positions in the view
+	 * count from the largest element, and changes to either are visible in the
+	 * other.
 	 * 
-	 * @param e the element to add to the tree
+	 * @return a reverse-ordered view of the TreeList
 	 */
-	public boolean add(T e) {
-		NodeInfo info = new NodeInfo();
-		root = root.add(e, info);
-		if (info.succeeded)
-			size++;
-		return info.succeeded;
+	public DescendingView descendingView() {
+		return new DescendingView();
 	}
 
 	/**
-	 * Retrieves an element at a specific position
+	 * Creates a live view of the elements greater than or equal to lo and less than
+	 * hi. The view is backed by this TreeList, so it reflects later changes, and
+	 * its size is found from ranks in O(log(n)) time.
 	 * 
-	 * @param pos position in the tree
-	 * @return the element at that position
-	 * @throws IndexOutOfBoundsException if the given position is outside the range
-	 *                                   of the TreeList
+	 * @param lo the lowest value of the range (inclusive)
+	 * @param hi the highest value of the range (exclusive)
+	 * @return a view of the range [lo, hi)
+	 * @throws IllegalArgumentException if lo is greater than hi
 	 */
-	public T get(int pos) throws IndexOutOfBoundsException {
-		if (pos < 0 || pos >= size) {
-			throw new IndexOutOfBoundsException();
+	public RangeView subList(T lo, T hi) throws IllegalArgumentException {
+		if (compare(lo, hi) > 0) {
+			throw new IllegalArgumentException("lo is greater than hi");
 		}
-		return root.get(pos).data;
+		return new RangeView(true, lo, true, hi);
 	}
 
 	/**
-	 * Removes an object from the treelist. Throws ClassCastException if the type of
-	 * the input is invalid.
+	 * Creates a live view of the elements less than hi
 	 * 
-	 * @param o the object to remove from the TreeList
-	 * @return the character that is removed
-	 * @throws ClassCastException if the type of the input is not the same as the
-	 *                            data type of the tree list.
+	 * @param hi the highest value of the range (exclusive)
+	 * @return a view of the elements less than hi
 	 */
-	@SuppressWarnings("unchecked")
-	@Override
-	public boolean remove(Object o) throws ClassCastException {
-		if (!root.data.getClass().isInstance(o)) {
-			throw new ClassCastException();
-		}
-		NodeInfo info = new NodeInfo();
-		root = root.remove((T) o, info);
-		if (info.succeeded)
-			size--;
-		return info.succeeded;
+	public RangeView headList(T hi) {
+		return new RangeView(false, null, true, hi);
 	}
 
 	/**
-	 * Determines if this TreeList is equivalent to another based on the In-order
-	 * traversal of their elements
+	 * Creates a live view of the elements greater than or equal to lo
 	 * 
-	 * @param o the object to evaluate this TreeList against
-	 * @return false if this TreeList and the inputed object are not equivalent,
-	 *         otherwise True.
+	 * @param lo the lowest value of the range (inclusive)
+	 * @return a view of the elements greater than or equal to lo
 	 */
-	@SuppressWarnings("unchecked")
-	@Override
-	public boolean equals(Object o) {
-		if (!(o instanceof TreeList))
-			return false;
-		if (this.size() != ((TreeList<T>) o).size())
-			return false;
-		Iterator<T> myIterator = iterator();
-		Iterator<T> oIterator = ((TreeList<T>) o).iterator();
-		while (myIterator.hasNext()) {
-			if (!myIterator.next().equals(oIterator.next())) {
-				return false;
-			}
-		}
-		return true;
+	public RangeView tailList(T lo) {
+		return new RangeView(true, lo, false, null);
 	}
 
 	/**
-	 * A node in a height-balanced binary tree with rank. Except for the NULL_NODE,
-	 * one node cannot belong to two different trees.
+	 * Creates a Spliterator over the TreeList that splits by index range. Since
+	 * every node knows the size of its left subtree, each half of a split has an
+	 * exact size, and traversal of a range starts with a single descent to its
+	 * first element.
+	 * 
+	 * @return a SIZED, SUBSIZED, SORTED and ORDERED Spliterator of the TreeList
 	 */
-	class Node {
+	@Override
+	public Spliterator<T> spliterator() {
+		TreeList<T> source = iterationSource();
+		return source.new RankSpliterator(0, source.size);
+	}
 
-		private enum Code {
-			SAME, LEFT, RIGHT;
+	/**
+	 * Performs an action for each element of the TreeList in order. The tree is
+	 * walked directly, without creating an iterator or allocating per element.
+	 * 
+	 * @param action the action to perform
+	 */
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		if (snapshotIteration) {
+			snapshot().forEach(action);
+			return;
+		}
+		Node<T>[] stack = newStack();
+		int depth = 0;
+		int expectedModCount = modCount;
+		Node<T> current = root;
+		while (current != NULL_NODE || depth > 0) {
+			while (current != NULL_NODE) {
+				stack[depth++] = current;
+				current = current.left;
+			}
+			Node<T> node = stack[--depth];
+			action.accept(node.data);
+			checkModCount(expectedModCount);
+			current = node.right;
+		}
+	}
+
+	/**
+	 * Creates an array large enough to hold any root-to-leaf path of the tree
+	 * 
+	 * @return a new array of MAX_HEIGHT nodes
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Node<T>[] newStack() {
+		return (Node<T>[]) new Node[MAX_HEIGHT];
+	}
+
+	/**
+	 * Allocates the reusable path buffer on the first modification that needs it
+	 */
+	private void ensurePath() {
+		if (path == null) {
+			path = newStack();
+			pathLeft = new boolean[MAX_HEIGHT];
+		}
+	}
+
+	/**
+	 * Forgets the nodes recorded in the path buffer once a modification is done
+	 * with them, so that the buffer never keeps a discarded tree reachable
+	 * 
+	 * @param depth the number of nodes recorded
+	 */
+	private void releasePath(int depth) {
+		Arrays.fill(path, 0, depth, null);
+	}
+
+	/**
+	 * Clears the TreeList, making the root simply a null node.
+	 */
+	@Override
+	public void clear() {
+		checkMutable();
+		this.root = NULL_NODE;
+		this.size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Removes every element that satisfies a predicate. The predicate is called
+	 * once per element, in order, on the calling thread, and the survivors are
+	 * gathered in that single pass. The tree is then rebuilt from them in linear
+	 * time, rather than unlinking elements one at a time. If the predicate throws,
+	 * the TreeList is left unchanged.
+	 * 
+	 * @param filter the predicate selecting the elements to remove
+	 * @return true if any element was removed
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super T> filter) {
+		checkMutable();
+		Objects.requireNonNull(filter);
+		if (root == NULL_NODE) {
+			return false;
+		}
+		Object[] kept = new Object[size];
+		int[] count = new int[1];
+		new LazyInOrderIterator().forEachRemaining(e -> {
+			if (!filter.test(e)) {
+				kept[count[0]++] = e;
+			}
+		});
+		return rebuild(kept, count[0]);
+	}
+
+	/**
+	 * Removes every element that satisfies a predicate, like removeIf, but at or
+	 * above PARALLEL_THRESHOLD elements the filtering pass is split by position
+	 * across the common ForkJoinPool. The predicate may then be called from
+	 * several threads at once and in no particular order, so it must be stateless
+	 * and safe to call concurrently. If the predicate throws, the TreeList is left
+	 * unchanged.
+	 * 
+	 * @param filter the stateless predicate selecting the elements to remove
+	 * @return true if any element was removed
+	 */
+	public boolean parallelRemoveIf(Predicate<? super T> filter) {
+		checkMutable();
+		Objects.requireNonNull(filter);
+		if (root == NULL_NODE) {
+			return false;
+		}
+		Object[] kept = StreamSupport.stream(new RankSpliterator(0, size), size >= PARALLEL_THRESHOLD)
+				.filter(e -> !filter.test(e)).toArray();
+		return rebuild(kept, kept.length);
+	}
+
+	/**
+	 * Replaces the tree with a balanced one built from the surviving elements of a
+	 * filtering pass, unless nothing was filtered out
+	 * 
+	 * @param kept  the surviving elements in order
+	 * @param count the number of surviving elements at the start of kept
+	 * @return true if any element was removed
+	 */
+	private boolean rebuild(Object[] kept, int count) {
+		if (count == size) {
+			return false;
+		}
+		root = buildBalanced(kept, 0, count);
+		size = count;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Removes every element that is contained in the given collection, with a
+	 * single filtering pass and rebuild
+	 * 
+	 * @param c the collection of elements to remove
+	 * @return true if any element was removed
+	 */
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(c::contains);
+	}
+
+	/**
+	 * Removes every element that is not contained in the given collection, with a
+	 * single filtering pass and rebuild
+	 * 
+	 * @param c the collection of elements to keep
+	 * @return true if any element was removed
+	 */
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Objects.requireNonNull(c);
+		return removeIf(e -> !c.contains(e));
+	}
+
+	/**
+	 * Creates a new Object array containing the elements of the TreeList. The type
+	 * of the array is not guaranteed by the method.
+	 * 
+	 * @return Object array containing all elements of the TreeList. The size of the
+	 *         return array is equal to the size of the TreeList.
+	 */
+	@Override
+	public Object[] toArray() {
+		Object[] a = new Object[this.size];
+		int i = 0;
+		for (T element : this) {
+			a[i] = element;
+			i++;
+		}
+		return a;
+	}
+
+	/**
+	 * Creates a new array containing the elements of the TreeList. The type of the
+	 * array is based on the type of the input array.
+	 * 
+	 * @param array of the same type as the TreeList's data.
+	 * @return Object array that can be cast to the inputted type
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object[] toArray(Object[] a) throws ClassCastException {
+		if (root != NULL_NODE && !a.getClass().getComponentType().isInstance(root.data)) {
+			throw new ClassCastException();
+		}
+		if (a.length < size) {
+			a = (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), size);
+		}
+		if (a.length > size) {
+			a[size] = null;
+		}
+		int i = 0;
+		for (T element : this) {
+			a[i] = element;
+			i++;
+		}
+		return a;
+	}
+
+	/**
+	 * Determines if every element from the input collection is contained within
+	 * this TreeList. Elements in the collection do not have to be sorted, but if
+	 * the collection is a TreeList or SortedSet with the same ordering, its
+	 * elements are looked up by a finger search that resumes from the previous
+	 * match instead of from the root, taking O(m log(n/m + 1)) time rather than
+	 * O(m log(n)).
+	 * 
+	 * @param c the collection to check
+	 * @return true if every element from the input collection is contained in the
+	 *         TreeList, otherwise false
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Override
+	public boolean containsAll(Collection c) {
+		if (isOrderedLikeThis(c) && root != NULL_NODE) {
+			Finger finger = new Finger();
+			for (Object o : c) {
+				T e = (T) o;
+				Node<T> node = finger.seek(e);
+				if (node == null || compare(node.data, e) != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+		for (Object o : c) {
+			if (!this.contains(o)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds all elements from a given input collection to this TreeList. Elements in
+	 * the collection do not have to be sorted. The order in which they were placed
+	 * into the collection will be lost. If the collection is a TreeList or
+	 * SortedSet with the same ordering and not much smaller than this TreeList,
+	 * the two trees are merged by union, taking O(m log(n/m + 1)) time rather than
+	 * O(m log(n)). Smaller collections are added element by element, as the union
+	 * would save little.
+	 * 
+	 * @param c the collection to add all elements from
+	 * @return true if this TreeList was modified as a result of the call, otherwise
+	 *         false
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Override
+	public boolean addAll(Collection c) throws ClassCastException {
+		checkMutable();
+		if (c.size() <= 0) {
+			return false;
+		}
+		if (isOrderedLikeThis(c) && c.size() >= size / MERGE_RATIO) {
+			merge(c);
+			return true;
+		}
+		for (Object o : c) {
+			this.add((T) o);
+		}
+		return true;
+	}
+
+	/**
+	 * Merges a TreeList or SortedSet with the same ordering into this TreeList by
+	 * union. The merge runs under this TreeList's own owner token, so its nodes
+	 * are reused in place and stay modifiable in place afterwards; only the nodes
+	 * of another TreeList are shared, and copied where the merge changes them.
+	 * 
+	 * @param c a non-empty collection sorted like this TreeList
+	 */
+	@SuppressWarnings("unchecked")
+	private void merge(Collection<?> c) {
+		checkCapacity(c.size());
+		Subtree<T> mine = new Subtree<T>(), theirs = new Subtree<T>(), merged = new Subtree<T>();
+		mine.set(root, height(root), size);
+		if (c instanceof TreeList) {
+			TreeList<T> shared = ((TreeList<T>) c).snapshot();
+			theirs.set(shared.root, height(shared.root), shared.size);
+		} else {
+			Object[] a = c.toArray();
+			Node<T> built = buildBalanced(a, 0, a.length);
+			theirs.set(built, height(built), a.length);
+		}
+		if (size > 0) {
+			// fail on incomparable elements before this tree is taken apart
+			compare(root.data, theirs.root.data);
+		}
+		// the smaller input is the one walked, and the larger the one split
+		if (mine.size < theirs.size) {
+			combineSubtrees(UNION, theirs, mine, merged);
+		} else {
+			combineSubtrees(UNION, mine, theirs, merged);
+		}
+		root = merged.root;
+		size = merged.size;
+		modCount++;
+	}
+
+	/**
+	 * Determines if a collection iterates in ascending order by the ordering of
+	 * this TreeList, which holds for a TreeList or SortedSet of the same ordering
+	 * 
+	 * @param c the collection to check
+	 * @return true if the collection is known to be sorted like this TreeList
+	 */
+	private boolean isOrderedLikeThis(Collection<?> c) {
+		if (c instanceof TreeList) {
+			return sameOrdering((TreeList<?>) c);
+		}
+		return c instanceof SortedSet && sameOrdering(((SortedSet<?>) c).comparator());
+	}
+
+	/**
+	 * Determines if another comparator orders elements the same way as this
+	 * TreeList
+	 * 
+	 * @param other the comparator of another sorted collection, or null for
+	 *              natural ordering
+	 * @return true if the comparator is known to match the ordering of this
+	 *         TreeList
+	 */
+	private boolean sameOrdering(Comparator<?> other) {
+		return Objects.equals(comparator, other);
+	}
+
+	/**
+	 * Determines if another TreeList orders elements the same way as this one.
+	 * TreeLists created by comparingLong with the same key function match even
+	 * though each wraps the key in its own Comparator.
+	 * 
+	 * @param other the other TreeList
+	 * @return true if the other TreeList is known to have the same ordering
+	 */
+	private boolean sameOrdering(TreeList<?> other) {
+		if (key != null && key == other.key) {
+			return true;
+		}
+		return sameOrdering(other.comparator);
+	}
+
+	/**
+	 * Determines the size of the tree
+	 * 
+	 * @return the number of nodes in this tree, not including any instances of
+	 *         NULL_NODE
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Adds a new element to the TreeList. It's location in the tree will be based
+	 * on the natural ordering of the element.
+	 * 
+	 * @param e the element to add to the tree
+	 */
+	public boolean add(T e) {
+		checkMutable();
+		checkCapacity(1);
+		ensurePath();
+		// record the descent to the insertion point
+		int depth = 0;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			boolean left = compare(e, node.data) <= 0;
+			path[depth] = node;
+			pathLeft[depth] = left;
+			depth++;
+			node = left ? node.left : node.right;
+		}
+		link(depth, e);
+		return true;
+	}
+
+	/**
+	 * Inserts a new element as a leaf at the end of the recorded path, which must
+	 * run from the root to a node with a free child on the recorded side, then
+	 * rebalances the tree
+	 * 
+	 * @param depth the length of the recorded path
+	 * @param e     the element to insert
+	 */
+	private void link(int depth, T e) {
+		// take ownership of the path and count the new element in the rank of every
+		// node passed on the left
+		Object token = owner;
+		for (int i = 0; i < depth; i++) {
+			if (path[i].owner != token) {
+				path[i] = path[i].own(token);
+				replaceChild(i, path[i]);
+			}
+			if (pathLeft[i]) {
+				path[i].addRank(1);
+			}
+		}
+		replaceChild(depth, new Node<>(e, token));
+
+		// fix balance codes on the way back up until the height stops growing
+		for (int i = depth - 1; i >= 0; i--) {
+			Node<T> node = path[i];
+			if (pathLeft[i]) {
+				if (node.balance() == Node.RIGHT) {
+					node.setBalance(Node.SAME);
+					break;
+				} else if (node.balance() == Node.SAME) {
+					node.setBalance(Node.LEFT);
+				} else {
+					replaceChild(i, fixLeftHeavy(node));
+					break;
+				}
+			} else {
+				if (node.balance() == Node.LEFT) {
+					node.setBalance(Node.SAME);
+					break;
+				} else if (node.balance() == Node.SAME) {
+					node.setBalance(Node.RIGHT);
+				} else {
+					replaceChild(i, fixRightHeavy(node));
+					break;
+				}
+			}
+		}
+		releasePath(depth);
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Replaces the node at a given depth of the recorded path within its parent,
+	 * or as the root if it has no parent. The parent must be owned.
+	 * 
+	 * @param depth    the depth of the node being replaced
+	 * @param newChild the node to put in its place
+	 */
+	private void replaceChild(int depth, Node<T> newChild) {
+		if (depth == 0) {
+			root = newChild;
+		} else if (pathLeft[depth - 1]) {
+			path[depth - 1].left = newChild;
+		} else {
+			path[depth - 1].right = newChild;
+		}
+	}
+
+	/**
+	 * Rotates a node whose left subtree is two levels taller than its right,
+	 * setting the resulting balance codes and ranks. The node must be owned; the
+	 * nodes the rotation modifies below it are made owned first.
+	 * 
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private Node<T> fixLeftHeavy(Node<T> node) {
+		Node<T> child = node.left.own(owner);
+		node.left = child;
+		if (child.balance() == Node.RIGHT) {
+			Node<T> grandchild = child.right.own(owner);
+			child.right = grandchild;
+			node.left = rotateLeft(child);
+			rotateRight(node);
+			node.setBalance(grandchild.balance() == Node.LEFT ? Node.RIGHT : Node.SAME);
+			child.setBalance(grandchild.balance() == Node.RIGHT ? Node.LEFT : Node.SAME);
+			grandchild.setBalance(Node.SAME);
+			return grandchild;
+		}
+		rotateRight(node);
+		if (child.balance() == Node.SAME) {
+			// only possible after a deletion; the subtree keeps its height
+			node.setBalance(Node.LEFT);
+			child.setBalance(Node.RIGHT);
+		} else {
+			node.setBalance(Node.SAME);
+			child.setBalance(Node.SAME);
+		}
+		return child;
+	}
+
+	/**
+	 * Rotates a node whose right subtree is two levels taller than its left,
+	 * setting the resulting balance codes and ranks. The node must be owned; the
+	 * nodes the rotation modifies below it are made owned first.
+	 * 
+	 * @param node the unbalanced node
+	 * @return the new root of the subtree
+	 */
+	private Node<T> fixRightHeavy(Node<T> node) {
+		Node<T> child = node.right.own(owner);
+		node.right = child;
+		if (child.balance() == Node.LEFT) {
+			Node<T> grandchild = child.left.own(owner);
+			child.left = grandchild;
+			node.right = rotateRight(child);
+			rotateLeft(node);
+			node.setBalance(grandchild.balance() == Node.RIGHT ? Node.LEFT : Node.SAME);
+			child.setBalance(grandchild.balance() == Node.LEFT ? Node.RIGHT : Node.SAME);
+			grandchild.setBalance(Node.SAME);
+			return grandchild;
+		}
+		rotateLeft(node);
+		if (child.balance() == Node.SAME) {
+			// only possible after a deletion; the subtree keeps its height
+			node.setBalance(Node.RIGHT);
+			child.setBalance(Node.LEFT);
+		} else {
+			node.setBalance(Node.SAME);
+			child.setBalance(Node.SAME);
+		}
+		return child;
+	}
+
+	/**
+	 * Performs a single right rotation, leaving balance codes to the caller
+	 * 
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private Node<T> rotateRight(Node<T> parent) {
+		Node<T> child = parent.left;
+		parent.left = child.right;
+		child.right = parent;
+		parent.addRank(-(child.rank() + 1));
+		return child;
+	}
+
+	/**
+	 * Performs a single left rotation, leaving balance codes to the caller
+	 * 
+	 * @param parent the node to rotate down
+	 * @return the new root of the subtree
+	 */
+	private Node<T> rotateLeft(Node<T> parent) {
+		Node<T> child = parent.right;
+		parent.right = child.left;
+		child.left = parent;
+		child.addRank(parent.rank() + 1);
+		return child;
+	}
+
+	/**
+	 * Retrieves an element at a specific position
+	 * 
+	 * @param pos position in the tree
+	 * @return the element at that position
+	 * @throws IndexOutOfBoundsException if the given position is outside the range
+	 *                                   of the TreeList
+	 */
+	public T get(int pos) throws IndexOutOfBoundsException {
+		if (pos < 0 || pos >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		return root.get(pos).data;
+	}
+
+	/**
+	 * Creates a cursor for a sequence of nearby accesses. Each access through the
+	 * cursor starts from the path to the element it last reached rather than from
+	 * the root, so reading consecutive positions takes amortized O(1) time.
+	 * 
+	 * @return a new cursor over this TreeList
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Determines the position of the first occurrence of an element
+	 * 
+	 * @param e the element to find
+	 * @return the position of the first element equal to e, or -1 if there is none
+	 */
+	public int indexOf(T e) {
+		int index = 0;
+		Node<T> candidate = NULL_NODE;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			if (compare(e, node.data) <= 0) {
+				candidate = node;
+				node = node.left;
+			} else {
+				index += node.rank() + 1;
+				node = node.right;
+			}
+		}
+		if (candidate != NULL_NODE && compare(e, candidate.data) == 0) {
+			return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * Determines the rank of an element, which is the number of elements strictly
+	 * less than it. This is also the position at which the element is or would be
+	 * first found.
+	 * 
+	 * @param e the element to rank
+	 * @return the number of elements less than e
+	 */
+	public int rank(T e) {
+		return lowerBound(e);
+	}
+
+	/**
+	 * Determines how many times an element occurs in the TreeList
+	 * 
+	 * @param e the element to count
+	 * @return the number of elements equal to e
+	 */
+	public int count(T e) {
+		return upperBound(e) - lowerBound(e);
+	}
+
+	/**
+	 * Determines how many elements fall within a range of values
+	 * 
+	 * @param lo the lowest value of the range (inclusive)
+	 * @param hi the highest value of the range (exclusive)
+	 * @return the number of elements greater than or equal to lo and less than hi
+	 * @throws IllegalArgumentException if lo is greater than hi
+	 */
+	public int countRange(T lo, T hi) throws IllegalArgumentException {
+		if (compare(lo, hi) > 0) {
+			throw new IllegalArgumentException("lo is greater than hi");
+		}
+		return lowerBound(hi) - lowerBound(lo);
+	}
+
+	/**
+	 * Determines the range of positions holding elements equal to the given one
+	 * 
+	 * @param e the element to find
+	 * @return a two-element array of the first position holding e (inclusive) and
+	 *         the last (exclusive). Both are equal to rank(e) if e is not present.
+	 */
+	public int[] equalRange(T e) {
+		return new int[] { lowerBound(e), upperBound(e) };
+	}
+
+	/**
+	 * Finds the smallest element of the TreeList
+	 * 
+	 * @return the first element in order
+	 * @throws NoSuchElementException if the TreeList is empty
+	 */
+	public T first() throws NoSuchElementException {
+		if (root == NULL_NODE) {
+			throw new NoSuchElementException();
+		}
+		Node<T> node = root;
+		while (node.left != NULL_NODE) {
+			node = node.left;
+		}
+		return node.data;
+	}
+
+	/**
+	 * Finds the largest element of the TreeList
+	 * 
+	 * @return the last element in order
+	 * @throws NoSuchElementException if the TreeList is empty
+	 */
+	public T last() throws NoSuchElementException {
+		if (root == NULL_NODE) {
+			throw new NoSuchElementException();
+		}
+		Node<T> node = root;
+		while (node.right != NULL_NODE) {
+			node = node.right;
+		}
+		return node.data;
+	}
+
+	/**
+	 * Removes and returns the smallest element of the TreeList
+	 * 
+	 * @return the first element in order, or null if the TreeList is empty
+	 */
+	public T pollFirst() {
+		checkMutable();
+		if (root == NULL_NODE) {
+			return null;
+		}
+		return removeAt(0);
+	}
+
+	/**
+	 * Removes and returns the largest element of the TreeList
+	 * 
+	 * @return the last element in order, or null if the TreeList is empty
+	 */
+	public T pollLast() {
+		checkMutable();
+		if (root == NULL_NODE) {
+			return null;
+		}
+		return removeAt(size - 1);
+	}
+
+	/**
+	 * Finds the largest element less than or equal to the given one
+	 * 
+	 * @param e the element to compare against
+	 * @return the greatest element less than or equal to e, or null if there is
+	 *         none
+	 */
+	public T floor(T e) {
+		T result = null;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			if (compare(e, node.data) >= 0) {
+				result = node.data;
+				node = node.right;
+			} else {
+				node = node.left;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the smallest element greater than or equal to the given one
+	 * 
+	 * @param e the element to compare against
+	 * @return the least element greater than or equal to e, or null if there is
+	 *         none
+	 */
+	public T ceiling(T e) {
+		T result = null;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			if (compare(e, node.data) <= 0) {
+				result = node.data;
+				node = node.left;
+			} else {
+				node = node.right;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the largest element strictly less than the given one
+	 * 
+	 * @param e the element to compare against
+	 * @return the greatest element less than e, or null if there is none
+	 */
+	public T lower(T e) {
+		T result = null;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			if (compare(e, node.data) > 0) {
+				result = node.data;
+				node = node.right;
+			} else {
+				node = node.left;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the smallest element strictly greater than the given one
+	 * 
+	 * @param e the element to compare against
+	 * @return the least element greater than e, or null if there is none
+	 */
+	public T higher(T e) {
+		T result = null;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			if (compare(e, node.data) < 0) {
+				result = node.data;
+				node = node.left;
+			} else {
+				node = node.right;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Counts the elements strictly less than the given one with a single descent
+	 * 
+	 * @param e the element to compare against
+	 * @return the number of elements less than e
+	 */
+	private int lowerBound(T e) {
+		int index = 0;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			if (compare(e, node.data) <= 0) {
+				node = node.left;
+			} else {
+				index += node.rank() + 1;
+				node = node.right;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Counts the elements less than or equal to the given one with a single
+	 * descent
+	 * 
+	 * @param e the element to compare against
+	 * @return the number of elements less than or equal to e
+	 */
+	private int upperBound(T e) {
+		int index = 0;
+		Node<T> node = root;
+		while (node != NULL_NODE) {
+			if (compare(e, node.data) < 0) {
+				node = node.left;
+			} else {
+				index += node.rank() + 1;
+				node = node.right;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Removes an object from the treelist. Throws ClassCastException if the type of
+	 * the input is invalid.
+	 * 
+	 * @param o the object to remove from the TreeList
+	 * @return the character that is removed
+	 * @throws ClassCastException if the input cannot be compared with the elements
+	 *                            of the tree list.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean remove(Object o) throws ClassCastException {
+		checkMutable();
+		if (root == NULL_NODE) {
+			return false;
+		}
+		ensurePath();
+		T element = (T) o;
+
+		// record the descent to the element, stopping if it isn't present
+		int depth = 0;
+		Node<T> node = root;
+		while (true) {
+			if (node == NULL_NODE) {
+				releasePath(depth);
+				return false;
+			}
+			path[depth] = node;
+			int comparison = compare(element, node.data);
+			if (comparison == 0) {
+				break;
+			}
+			pathLeft[depth] = comparison < 0;
+			depth++;
+			node = comparison < 0 ? node.left : node.right;
+		}
+		unlink(depth);
+		return true;
+	}
+
+	/**
+	 * Removes the node at the end of the recorded path, which must run from the
+	 * root, then rebalances the tree. A node with two children is replaced by its
+	 * in-order successor, so the path is first extended to the successor.
+	 * 
+	 * @param found the depth of the node to remove within the recorded path
+	 * @return the element that was removed
+	 */
+	private T unlink(int found) {
+		int depth = found;
+		Node<T> node = path[found];
+		if (node.left != NULL_NODE && node.right != NULL_NODE) {
+			// continue to the in-order successor, which is the node actually unlinked
+			pathLeft[depth] = false;
+			depth++;
+			node = node.right;
+			while (node.left != NULL_NODE) {
+				path[depth] = node;
+				pathLeft[depth] = true;
+				depth++;
+				node = node.left;
+			}
+			path[depth] = node;
+		}
+		// take ownership of the path and uncount the element from the ranks
+		Object token = owner;
+		for (int i = 0; i <= depth; i++) {
+			if (path[i].owner != token) {
+				path[i] = path[i].own(token);
+				replaceChild(i, path[i]);
+			}
+			if (i < depth && pathLeft[i]) {
+				path[i].addRank(-1);
+			}
+		}
+		T data = path[found].data;
+		path[found].data = path[depth].data;
+		node = path[depth];
+		replaceChild(depth, node.left != NULL_NODE ? node.left : node.right);
+
+		// fix balance codes on the way back up until the height stops shrinking
+		for (int i = depth - 1; i >= 0; i--) {
+			node = path[i];
+			if (pathLeft[i]) {
+				if (node.balance() == Node.LEFT) {
+					node.setBalance(Node.SAME);
+				} else if (node.balance() == Node.SAME) {
+					node.setBalance(Node.RIGHT);
+					break;
+				} else {
+					Node<T> rotated = fixRightHeavy(node);
+					replaceChild(i, rotated);
+					if (rotated.balance() != Node.SAME) {
+						break;
+					}
+				}
+			} else {
+				if (node.balance() == Node.RIGHT) {
+					node.setBalance(Node.SAME);
+				} else if (node.balance() == Node.SAME) {
+					node.setBalance(Node.LEFT);
+					break;
+				} else {
+					Node<T> rotated = fixLeftHeavy(node);
+					replaceChild(i, rotated);
+					if (rotated.balance() != Node.SAME) {
+						break;
+					}
+				}
+			}
+		}
+		releasePath(depth + 1);
+		size--;
+		modCount++;
+		return data;
+	}
+
+	/**
+	 * Removes the element at a specific position. Unlike remove(Object), the node
+	 * is found by rank alone, and exactly that element is removed even when it
+	 * has equal duplicates.
+	 *
+	 * @param pos the position of the element to remove
+	 * @return the element that was removed
+	 * @throws IndexOutOfBoundsException if the given position is outside the range
+	 *                                   of the TreeList
+	 */
+	public T removeAt(int pos) throws IndexOutOfBoundsException {
+		checkMutable();
+		if (pos < 0 || pos >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		ensurePath();
+
+		// record the descent to the position
+		int depth = 0;
+		Node<T> node = root;
+		while (true) {
+			path[depth] = node;
+			int rank = node.rank();
+			if (pos == rank) {
+				break;
+			}
+			pathLeft[depth] = pos < rank;
+			depth++;
+			if (pos < rank) {
+				node = node.left;
+			} else {
+				pos -= rank + 1;
+				node = node.right;
+			}
+		}
+		return unlink(depth);
+	}
+
+	/**
+	 * Removes every element whose position is in the range [from, to). The tree is
+	 * split at both ends of the range and the outer parts are joined back
+	 * together, so this takes O(log(n)) time however many elements are removed.
+	 *
+	 * @param from the first position to remove (inclusive)
+	 * @param to   the last position to remove (exclusive)
+	 * @throws IndexOutOfBoundsException if from or to is outside the range of the
+	 *                                   TreeList, or from is greater than to
+	 */
+	public void removeRange(int from, int to) throws IndexOutOfBoundsException {
+		checkMutable();
+		if (from < 0 || to > size || from > to) {
+			throw new IndexOutOfBoundsException();
+		}
+		if (from == to) {
+			return;
+		}
+		Subtree<T> head = new Subtree<T>(), middle = new Subtree<T>(), tail = new Subtree<T>();
+		split(root, height(root), size, from, head, middle);
+		split(middle.root, middle.height, middle.size, to - from, middle, tail);
+		join(head, tail, head);
+		root = head.root;
+		size = head.size;
+		modCount++;
+	}
+
+	/**
+	 * Splits this TreeList by position in O(log(n)) time. The elements at
+	 * positions index and above are removed from this TreeList and returned, in
+	 * order, as a new TreeList with the same ordering.
+	 *
+	 * @param index the position of the first element to move
+	 * @return a TreeList holding the elements formerly at positions index and
+	 *         above
+	 * @throws IndexOutOfBoundsException if index is negative or greater than the
+	 *                                   size of the TreeList
+	 */
+	public TreeList<T> splitAt(int index) throws IndexOutOfBoundsException {
+		checkMutable();
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException();
+		}
+		Subtree<T> lower = new Subtree<T>(), upper = new Subtree<T>();
+		split(root, height(root), size, index, lower, upper);
+		root = lower.root;
+		size = lower.size;
+		modCount++;
+		// the halves share no nodes, so this TreeList keeps modifying its own in
+		// place; the new one has a fresh token and copies the nodes it received
+		return new TreeList<T>(this, upper.root, upper.size, false);
+	}
+
+	/**
+	 * Splits this TreeList by element in O(log(n)) time. The elements greater
+	 * than or equal to e are removed from this TreeList and returned, in order, as
+	 * a new TreeList with the same ordering.
+	 *
+	 * @param e the least element to move
+	 * @return a TreeList holding the elements formerly greater than or equal to e
+	 */
+	public TreeList<T> splitAt(T e) {
+		return splitAt(rank(e));
+	}
+
+	/**
+	 * Appends every element of another TreeList in O(log(n)) time. Every element
+	 * of this TreeList must be less than or equal to every element of the other.
+	 * The other TreeList is left unchanged, and from then on shares its nodes with
+	 * this one the way a snapshot does.
+	 *
+	 * @param other a TreeList with the same ordering whose elements all follow
+	 *              those of this TreeList
+	 * @throws IllegalArgumentException if the TreeLists are ordered differently or
+	 *                                  their elements overlap
+	 */
+	public void concat(TreeList<T> other) throws IllegalArgumentException {
+		checkMutable();
+		if (!sameOrdering(other)) {
+			throw new IllegalArgumentException("TreeLists must share the same ordering");
+		}
+		if (other.size == 0) {
+			return;
+		}
+		checkCapacity(other.size);
+		if (size > 0 && compare(last(), other.first()) > 0) {
+			throw new IllegalArgumentException("Every element must precede every element of the other TreeList");
+		}
+		TreeList<T> shared = other.snapshot();
+		Subtree<T> lower = new Subtree<T>(), upper = new Subtree<T>();
+		lower.set(root, height(root), size);
+		upper.set(shared.root, height(shared.root), shared.size);
+		join(lower, upper, lower);
+		root = lower.root;
+		size = lower.size;
+		modCount++;
+	}
+
+	/**
+	 * Returns a new TreeList holding every element of this TreeList and every
+	 * element of another, as if by addAll, in O(m log(n/m + 1)) time for sizes m
+	 * <= n. The trees are combined by recursive splits and joins rather than by m
+	 * insertions, and large inputs are combined in parallel on the common
+	 * fork-join pool. Both TreeLists are left unchanged, and from then on share
+	 * their nodes with the result the way a snapshot does.
+	 *
+	 * @param other a TreeList with the same ordering
+	 * @return the union of the two TreeLists, counting duplicates from both
+	 * @throws IllegalArgumentException if the TreeLists are ordered differently
+	 */
+	public TreeList<T> union(TreeList<T> other) throws IllegalArgumentException {
+		checkCapacity(other.size);
+		// the smaller input is the one walked, and the larger the one split
+		return size < other.size ? combine(UNION, other, this) : combine(UNION, this, other);
+	}
+
+	/**
+	 * Returns a new TreeList holding the elements of this TreeList that are equal
+	 * to some element of another, as if by retainAll, in O(m log(n/m + 1)) time
+	 * for sizes m <= n. Duplicates are kept as many times as they appear in this
+	 * TreeList. Large inputs are combined in parallel on the common fork-join pool.
+	 * Both TreeLists are left unchanged, and from then on share their nodes with
+	 * the result the way a snapshot does.
+	 *
+	 * @param other a TreeList with the same ordering
+	 * @return the intersection of the two TreeLists
+	 * @throws IllegalArgumentException if the TreeLists are ordered differently
+	 */
+	public TreeList<T> intersection(TreeList<T> other) throws IllegalArgumentException {
+		return combine(INTERSECTION, this, other);
+	}
+
+	/**
+	 * Returns a new TreeList holding the elements of this TreeList that are not
+	 * equal to any element of another, as if by removeAll, in O(m log(n/m + 1))
+	 * time for sizes m <= n. Large inputs are combined in parallel on the common
+	 * fork-join pool. Both TreeLists are left unchanged, and from then on share
+	 * their nodes with the result the way a snapshot does.
+	 *
+	 * @param other a TreeList with the same ordering
+	 * @return the difference of the two TreeLists
+	 * @throws IllegalArgumentException if the TreeLists are ordered differently
+	 */
+	public TreeList<T> difference(TreeList<T> other) throws IllegalArgumentException {
+		return combine(DIFFERENCE, this, other);
+	}
+
+	/**
+	 * Combines the trees of two TreeLists into a new TreeList by one of the set
+	 * operations
+	 *
+	 * @param operation UNION, INTERSECTION or DIFFERENCE
+	 * @param split     the TreeList whose tree is split around the other's keys
+	 * @param walked    the TreeList whose tree is walked
+	 * @return the combined TreeList
+	 * @throws IllegalArgumentException if the TreeLists are ordered differently
+	 */
+	private TreeList<T> combine(int operation, TreeList<T> split, TreeList<T> walked)
+			throws IllegalArgumentException {
+		if (!split.sameOrdering(walked)) {
+			throw new IllegalArgumentException("TreeLists must share the same ordering");
+		}
+		// the result shares nodes with both inputs, so neither may modify them in place
+		TreeList<T> a = split.snapshot(), b = walked.snapshot();
+		TreeList<T> result = new TreeList<T>(this, NULL_NODE, 0, false);
+		Subtree<T> splitTree = new Subtree<T>(), walkedTree = new Subtree<T>(), combined = new Subtree<T>();
+		splitTree.set(a.root, height(a.root), a.size);
+		walkedTree.set(b.root, height(b.root), b.size);
+		result.combineSubtrees(operation, splitTree, walkedTree, combined);
+		result.root = combined.root;
+		result.size = combined.size;
+		return result;
+	}
+
+	/**
+	 * A detached AVL subtree, together with the height and size needed to split
+	 * and join it without walking it again
+	 */
+	private static final class Subtree<T> {
+		private Node<T> root; // the root of the subtree
+		private int height; // the height of the subtree, where an empty subtree has height 0
+		private int size; // the number of elements in the subtree
+
+		/**
+		 * Sets every property of the subtree
+		 *
+		 * @param root   the root of the subtree
+		 * @param height the height of the subtree
+		 * @param size   the number of elements in the subtree
+		 */
+		private void set(Node<T> root, int height, int size) {
+			this.root = root;
+			this.height = height;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * Determines the height of a subtree by following its taller side down
+	 *
+	 * @param node the root of the subtree
+	 * @return the height of the subtree, where an empty subtree has height 0
+	 */
+	private int height(Node<T> node) {
+		int height = 0;
+		while (node != NULL_NODE) {
+			height++;
+			node = node.balance() == Node.LEFT ? node.left : node.right;
+		}
+		return height;
+	}
+
+	/**
+	 * Splits a subtree by position into the elements before pos and the elements
+	 * from pos on. Owned nodes of the subtree are reused in place, so the subtree
+	 * must not be used afterwards.
+	 *
+	 * @param node   the root of the subtree to split
+	 * @param height the height of the subtree
+	 * @param size   the number of elements in the subtree
+	 * @param pos    the position of the first element of the upper part
+	 * @param lower  receives the elements before pos
+	 * @param upper  receives the elements from pos on
+	 */
+	private void split(Node<T> node, int height, int size, int pos, Subtree<T> lower, Subtree<T> upper) {
+		if (node == NULL_NODE) {
+			lower.set(NULL_NODE, 0, 0);
+			upper.set(NULL_NODE, 0, 0);
+			return;
+		}
+		int rank = node.rank();
+		int leftHeight = height - (node.balance() == Node.RIGHT ? 2 : 1);
+		int rightHeight = height - (node.balance() == Node.LEFT ? 2 : 1);
+		Subtree<T> side = new Subtree<T>();
+		if (pos <= rank) {
+			side.set(node.right, rightHeight, size - rank - 1);
+			split(node.left, leftHeight, rank, pos, lower, upper);
+			join(upper, node, side, upper);
+		} else {
+			side.set(node.left, leftHeight, rank);
+			split(node.right, rightHeight, size - rank - 1, pos - rank - 1, lower, upper);
+			join(side, node, lower, lower);
+		}
+	}
+
+	/**
+	 * Splits a subtree by element into the elements ordered before e and the rest.
+	 * Owned nodes of the subtree are reused in place, so the subtree must not be
+	 * used afterwards.
+	 *
+	 * @param node      the root of the subtree to split
+	 * @param height    the height of the subtree
+	 * @param size      the number of elements in the subtree
+	 * @param e         the element to split around
+	 * @param inclusive true if the elements equal to e go to the lower part
+	 * @param lower     receives the elements less than e, or equal to it if
+	 *                  inclusive
+	 * @param upper     receives the remaining elements
+	 */
+	private void split(Node<T> node, int height, int size, T e, boolean inclusive, Subtree<T> lower,
+			Subtree<T> upper) {
+		if (node == NULL_NODE) {
+			lower.set(NULL_NODE, 0, 0);
+			upper.set(NULL_NODE, 0, 0);
+			return;
+		}
+		int rank = node.rank();
+		int leftHeight = height - (node.balance() == Node.RIGHT ? 2 : 1);
+		int rightHeight = height - (node.balance() == Node.LEFT ? 2 : 1);
+		int comparison = compare(node.data, e);
+		Subtree<T> side = new Subtree<T>();
+		if (comparison > 0 || comparison == 0 && !inclusive) {
+			side.set(node.right, rightHeight, size - rank - 1);
+			split(node.left, leftHeight, rank, e, inclusive, lower, upper);
+			join(upper, node, side, upper);
+		} else {
+			side.set(node.left, leftHeight, rank);
+			split(node.right, rightHeight, size - rank - 1, e, inclusive, lower, upper);
+			join(side, node, lower, lower);
+		}
+	}
+
+	/**
+	 * Joins two subtrees, every element of the first preceding every element of
+	 * the second, in O(log(n)) time. The last element of the lower subtree is
+	 * split off and used as the key that joins them.
+	 *
+	 * @param lower  the subtree holding the lower elements
+	 * @param upper  the subtree holding the upper elements
+	 * @param result receives the joined subtree; may be lower or upper
+	 */
+	private void join(Subtree<T> lower, Subtree<T> upper, Subtree<T> result) {
+		if (lower.root == NULL_NODE) {
+			result.set(upper.root, upper.height, upper.size);
+			return;
+		}
+		if (upper.root == NULL_NODE) {
+			result.set(lower.root, lower.height, lower.size);
+			return;
+		}
+		Subtree<T> rest = new Subtree<T>(), last = new Subtree<T>();
+		split(lower.root, lower.height, lower.size, lower.size - 1, rest, last);
+		join(rest, last.root, upper, result);
+	}
+
+	/**
+	 * Joins two subtrees and a key node between them into one AVL subtree. The
+	 * taller subtree is descended along its inner spine to a node whose height is
+	 * within one of the shorter subtree, the key is put in its place with the
+	 * shorter subtree as its other child, and balance is restored on the way back
+	 * up as after an insertion. This takes time proportional to the difference in
+	 * height.
+	 *
+	 * @param lower  the subtree holding the elements before the key
+	 * @param key    the node holding the key; its children and rank are replaced
+	 * @param upper  the subtree holding the elements after the key
+	 * @param result receives the joined subtree; may be lower or upper
+	 */
+	private void join(Subtree<T> lower, Node<T> key, Subtree<T> upper, Subtree<T> result) {
+		key = key.own(owner);
+		if (lower.height > upper.height + 1) {
+			joinRight(lower, key, upper, result);
+		} else if (upper.height > lower.height + 1) {
+			joinLeft(lower, key, upper, result);
+		} else {
+			key.left = lower.root;
+			key.right = upper.root;
+			key.setRank(lower.size);
+			key.setBalance(lower.height > upper.height ? Node.LEFT
+					: lower.height < upper.height ? Node.RIGHT : Node.SAME);
+			result.set(key, Math.max(lower.height, upper.height) + 1, lower.size + upper.size + 1);
+		}
+	}
+
+	/**
+	 * Joins a key and a shorter upper subtree onto the right spine of a taller
+	 * lower subtree
+	 *
+	 * @param lower  the taller subtree holding the elements before the key
+	 * @param key    the owned node holding the key
+	 * @param upper  the subtree holding the elements after the key
+	 * @param result receives the joined subtree; may be lower or upper
+	 */
+	private void joinRight(Subtree<T> lower, Node<T> key, Subtree<T> upper, Subtree<T> result) {
+		ensurePath();
+		Node<T> root = lower.root;
+		int size = lower.size + upper.size + 1;
+
+		// descend the right spine, taking ownership, to the first node at most one
+		// level taller than the upper subtree
+		int depth = 0;
+		int height = lower.height;
+		int remaining = lower.size;
+		Node<T> node = root;
+		while (height > upper.height + 1) {
+			node = node.own(owner);
+			if (depth == 0) {
+				root = node;
+			} else {
+				path[depth - 1].right = node;
+			}
+			path[depth++] = node;
+			height -= node.balance() == Node.LEFT ? 2 : 1;
+			remaining -= node.rank() + 1;
+			node = node.right;
+		}
+		key.left = node;
+		key.right = upper.root;
+		key.setRank(remaining);
+		key.setBalance(height > upper.height ? Node.LEFT : Node.SAME);
+		path[depth - 1].right = key;
+
+		// fix balance codes on the way back up until the height stops growing
+		boolean grew = true;
+		for (int i = depth - 1; i >= 0 && grew; i--) {
+			node = path[i];
+			if (node.balance() == Node.LEFT) {
+				node.setBalance(Node.SAME);
+				grew = false;
+			} else if (node.balance() == Node.SAME) {
+				node.setBalance(Node.RIGHT);
+			} else {
+				Node<T> rotated = fixRightHeavy(node);
+				if (i == 0) {
+					root = rotated;
+				} else {
+					path[i - 1].right = rotated;
+				}
+				grew = rotated.balance() != Node.SAME;
+			}
+		}
+		releasePath(depth);
+		result.set(root, grew ? lower.height + 1 : lower.height, size);
+	}
+
+	/**
+	 * Joins a shorter lower subtree and a key onto the left spine of a taller
+	 * upper subtree
+	 *
+	 * @param lower  the subtree holding the elements before the key
+	 * @param key    the owned node holding the key
+	 * @param upper  the taller subtree holding the elements after the key
+	 * @param result receives the joined subtree; may be lower or upper
+	 */
+	private void joinLeft(Subtree<T> lower, Node<T> key, Subtree<T> upper, Subtree<T> result) {
+		ensurePath();
+		Node<T> root = upper.root;
+		int size = lower.size + upper.size + 1;
+
+		// descend the left spine, taking ownership and counting the lower subtree
+		// and the key in each rank, to the first node at most one level taller than
+		// the lower subtree
+		int depth = 0;
+		int height = upper.height;
+		Node<T> node = root;
+		while (height > lower.height + 1) {
+			node = node.own(owner);
+			if (depth == 0) {
+				root = node;
+			} else {
+				path[depth - 1].left = node;
+			}
+			path[depth++] = node;
+			node.addRank(lower.size + 1);
+			height -= node.balance() == Node.RIGHT ? 2 : 1;
+			node = node.left;
+		}
+		key.left = lower.root;
+		key.right = node;
+		key.setRank(lower.size);
+		key.setBalance(height > lower.height ? Node.RIGHT : Node.SAME);
+		path[depth - 1].left = key;
+
+		// fix balance codes on the way back up until the height stops growing
+		boolean grew = true;
+		for (int i = depth - 1; i >= 0 && grew; i--) {
+			node = path[i];
+			if (node.balance() == Node.RIGHT) {
+				node.setBalance(Node.SAME);
+				grew = false;
+			} else if (node.balance() == Node.SAME) {
+				node.setBalance(Node.LEFT);
+			} else {
+				Node<T> rotated = fixLeftHeavy(node);
+				if (i == 0) {
+					root = rotated;
+				} else {
+					path[i - 1].left = rotated;
+				}
+				grew = rotated.balance() != Node.SAME;
+			}
+		}
+		releasePath(depth);
+		result.set(root, grew ? upper.height + 1 : upper.height, size);
+	}
+
+	/**
+	 * Combines two subtrees by one of the set operations under the owner token of
+	 * this TreeList, on the common fork-join pool when they are large enough
+	 *
+	 * @param operation UNION, INTERSECTION or DIFFERENCE
+	 * @param split     the subtree that is split
+	 * @param walked    the subtree that is walked
+	 * @param result    receives the combined subtree
+	 */
+	private void combineSubtrees(int operation, Subtree<T> split, Subtree<T> walked, Subtree<T> result) {
+		if (split.size + walked.size >= PARALLEL_THRESHOLD) {
+			ForkJoinPool.commonPool().invoke(new SetOperation<T>(this, operation, split, walked, result));
+		} else {
+			combine(operation, split, walked, result);
+		}
+	}
+
+	/**
+	 * Combines two subtrees by one of the set operations. The root of the walked
+	 * subtree splits the other into the elements less than, equal to and greater
+	 * than it; the two sides are combined recursively, in parallel when they are
+	 * large enough and a fork-join pool is running this, and joined back around
+	 * the root. Nodes this TreeList owns may be reused in place, so a subtree
+	 * holding any must not be used afterwards; other nodes are copied before they
+	 * change.
+	 *
+	 * @param operation UNION, INTERSECTION or DIFFERENCE
+	 * @param split     the subtree that is split; for INTERSECTION and DIFFERENCE,
+	 *                  the one whose elements are kept
+	 * @param walked    the subtree that is walked
+	 * @param result    receives the combined subtree
+	 */
+	private void combine(int operation, Subtree<T> split, Subtree<T> walked, Subtree<T> result) {
+		if (walked.root == NULL_NODE || split.root == NULL_NODE) {
+			if (operation == INTERSECTION) {
+				result.set(NULL_NODE, 0, 0);
+			} else if (walked.root == NULL_NODE) {
+				result.set(split.root, split.height, split.size);
+			} else if (operation == UNION) {
+				result.set(walked.root, walked.height, walked.size);
+			} else {
+				result.set(NULL_NODE, 0, 0);
+			}
+			return;
+		}
+		Node<T> key = walked.root;
+		int rank = key.rank();
+		Subtree<T> walkedLeft = new Subtree<T>(), walkedRight = new Subtree<T>();
+		walkedLeft.set(key.left, walked.height - (key.balance() == Node.RIGHT ? 2 : 1), rank);
+		walkedRight.set(key.right, walked.height - (key.balance() == Node.LEFT ? 2 : 1), walked.size - rank - 1);
+
+		Subtree<T> less = new Subtree<T>(), equal = new Subtree<T>(), greater = new Subtree<T>();
+		split(split.root, split.height, split.size, key.data, false, less, greater);
+		if (operation != UNION) {
+			split(greater.root, greater.height, greater.size, key.data, true, equal, greater);
+		}
+
+		Subtree<T> left = new Subtree<T>(), right = new Subtree<T>();
+		if (less.size + walkedLeft.size >= PARALLEL_THRESHOLD && ForkJoinTask.inForkJoinPool()) {
+			SetOperation<T> task = new SetOperation<T>(this, operation, less, walkedLeft, left);
+			task.fork();
+			combine(operation, greater, walkedRight, right);
+			task.join();
+		} else {
+			combine(operation, less, walkedLeft, left);
+			combine(operation, greater, walkedRight, right);
+		}
+
+		if (operation == UNION) {
+			join(left, key, right, result);
+		} else if (operation == INTERSECTION) {
+			join(left, equal, left);
+			join(left, right, result);
+		} else {
+			join(left, right, result);
+		}
+	}
+
+	/**
+	 * One side of a set operation, run as a fork-join task. Each task works
+	 * through its own TreeList, so that tasks never share a path buffer, but every
+	 * such TreeList carries the owner token of the result, so nodes copied by any
+	 * task belong to the result.
+	 */
+	private static final class SetOperation<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final TreeList<T> worker; // the TreeList the operation runs through
+		private final int operation; // UNION, INTERSECTION or DIFFERENCE
+		private final Subtree<T> split, walked, result; // the arguments of combine
+
+		/**
+		 * Creates a task combining two subtrees
+		 *
+		 * @param result    the TreeList the combined tree will belong to
+		 * @param operation UNION, INTERSECTION or DIFFERENCE
+		 * @param split     the subtree that is split
+		 * @param walked    the subtree that is walked
+		 * @param combined  receives the combined subtree
+		 */
+		private SetOperation(TreeList<T> result, int operation, Subtree<T> split, Subtree<T> walked,
+				Subtree<T> combined) {
+			this.worker = new TreeList<T>(result, result.NULL_NODE, 0, false);
+			this.worker.owner = result.owner;
+			this.operation = operation;
+			this.split = split;
+			this.walked = walked;
+			this.result = combined;
+		}
+
+		/**
+		 * Combines the subtrees
+		 */
+		@Override
+		protected void compute() {
+			worker.combine(operation, split, walked, result);
+		}
+	}
+
+	/**
+	 * Determines if this TreeList is equivalent to another based on the In-order
+	 * traversal of their elements
+	 * 
+	 * @param o the object to evaluate this TreeList against
+	 * @return false if this TreeList and the inputed object are not equivalent,
+	 *         otherwise True.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof TreeList))
+			return false;
+		if (this.size() != ((TreeList<T>) o).size())
+			return false;
+		Iterator<T> myIterator = iterator();
+		Iterator<T> oIterator = ((TreeList<T>) o).iterator();
+		while (myIterator.hasNext()) {
+			if (!myIterator.next().equals(oIterator.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A node in a height-balanced binary tree with rank. Except for the shared
+	 * null node, a node is only modified in place by the TreeList whose owner
+	 * token it carries.
+	 * 
+	 * The node is kept to five 4-byte fields so that it fits in 32 bytes under
+	 * compressed oops: the balance code is packed into the low two bits of the
+	 * rank field instead of occupying a field of its own, and the class is static
+	 * so it carries no reference to an enclosing TreeList.
+	 */
+	static final class Node<T> {
+		static final int SAME = 0, LEFT = 1, RIGHT = 2; // balance codes
+		private static final int BALANCE_BITS = 2; // low bits of the rank field holding the balance code
+		private static final int BALANCE_MASK = (1 << BALANCE_BITS) - 1;
+		static final int MAX_RANK = -1 >>> BALANCE_BITS; // the largest rank the packed field can hold
+
+		@SuppressWarnings("rawtypes")
+		private static final Node NIL = new Node(); // the null node shared by every TreeList
+
+		private T data; // the data contained by this node
+		private Node<T> left, right; // the left and right subtrees of this node
+		private int bits; // the size of the left subtree, shifted above the balance code
+		private Object owner; // the token of the TreeList allowed to modify this node in place
+
+		/**
+		 * Creates a new null node, whose data, left, and right nodes are set to null.
+		 */
+		private Node() {
+			this.left = null;
+			this.right = null;
+			this.data = null;
+		}
+
+		/**
+		 * Creates a Node with the specified data and left and right null nodes
+		 * 
+		 * @param data  representing the data for this node to contain
+		 * @param owner the token of the TreeList creating the node
+		 */
+		private Node(T data, Object owner) {
+			this.left = nil();
+			this.right = nil();
+			this.data = data;
+			this.owner = owner;
+		}
+
+		/**
+		 * Returns the null node shared by every TreeList
+		 * 
+		 * @return the null node, typed for the caller
+		 */
+		@SuppressWarnings("unchecked")
+		static <T> Node<T> nil() {
+			return (Node<T>) NIL;
+		}
+
+		/**
+		 * @return the in-order position of this node within its own subtree
+		 */
+		int rank() {
+			return bits >>> BALANCE_BITS;
+		}
+
+		/**
+		 * @param rank the new in-order position of this node within its own subtree
+		 */
+		void setRank(int rank) {
+			bits = rank << BALANCE_BITS | bits & BALANCE_MASK;
+		}
+
+		/**
+		 * @param delta the amount to add to the rank of this node
+		 */
+		void addRank(int delta) {
+			bits += delta << BALANCE_BITS;
+		}
+
+		/**
+		 * @return the balance of this node: SAME, LEFT or RIGHT
+		 */
+		int balance() {
+			return bits & BALANCE_MASK;
+		}
+
+		/**
+		 * @param balance the new balance of this node: SAME, LEFT or RIGHT
+		 */
+		void setBalance(int balance) {
+			bits = bits & ~BALANCE_MASK | balance;
+		}
+
+		/**
+		 * Returns a node that may be modified in place: this node if the given owner
+		 * owns it, otherwise a copy of it that the owner owns. Nodes shared with a
+		 * snapshot are never modified.
+		 * 
+		 * @param token the owner token of the TreeList about to modify the node
+		 * @return this node, or an owned copy of it
+		 */
+		private Node<T> own(Object token) {
+			if (owner == token) {
+				return this;
+			}
+			Node<T> copy = new Node<>(data, token);
+			copy.left = left;
+			copy.right = right;
+			copy.bits = bits;
+			return copy;
+		}
+
+		/**
+		 * Returns a String representation of the TreeList using an in-order traversal
+		 * 
+		 * @param sb the StringBuilder object to add modifications to
+		 */
+		private void toString(StringBuilder sb) {
+			if (this == NIL)
+				return;
+			left.toString(sb);
+			sb.append(String.valueOf(data));
+			sb.append(", ");
+			right.toString(sb);
+		}
+
+		/**
+		 * Retrieves the Node at a given position
+		 * 
+		 * @param pos the integer position to locate the node at relative to the current
+		 *            subtree
+		 * @return the Node found at the specified position
+		 */
+		private Node<T> get(int pos) {
+			int rank = rank();
+			if (rank == pos) {
+				return this;
+			} else if (pos <= rank) {
+				return left.get(pos);
+			}
+			return right.get(pos - rank - 1);
+		}
+	}
+
+	/**
+	 * A cursor over a TreeList that remembers the path to the last element it
+	 * reached, so that the next access starts from there instead of from the
+	 * root. Moving to a nearby position or inserting an element near the previous
+	 * one only climbs as far as the lowest common ancestor before descending
+	 * again: reading consecutive positions takes amortized O(1) time, and both
+	 * reads and insertions at a distance of d take O(log(d)) steps and
+	 * comparisons. An insertion still adjusts the ranks along the path to the
+	 * root, but does so from the remembered path without comparing elements.
+	 * 
+	 * A modification of the TreeList made other than through the cursor does not
+	 * break the cursor; its next access simply starts again from the root.
+	 */
+	public class Cursor {
+
+		private final Node<T>[] stack = newStack(); // the path from the root to the current node
+		private final int[] lo = new int[MAX_HEIGHT]; // the first position in each subtree on the path
+		private final int[] hi = new int[MAX_HEIGHT]; // one past the last position in each subtree on the path
+		private final int[] lowerIndex = new int[MAX_HEIGHT]; // depth of the nearest ancestor left of each subtree
+		private final int[] upperIndex = new int[MAX_HEIGHT]; // depth of the nearest ancestor right of each subtree
+		private int depth; // the length of the remembered path, 0 if nothing is remembered
+		private int expectedModCount; // the modCount of the TreeList when the path was remembered
+
+		/**
+		 * Creates a cursor that remembers nothing yet
+		 */
+		private Cursor() {
+		}
+
+		/**
+		 * Retrieves the element at a specific position, navigating from the
+		 * previously reached position
+		 * 
+		 * @param pos position in the TreeList
+		 * @return the element at that position
+		 * @throws IndexOutOfBoundsException if the given position is outside the
+		 *                                   range of the TreeList
+		 */
+		public T get(int pos) throws IndexOutOfBoundsException {
+			if (pos < 0 || pos >= size) {
+				throw new IndexOutOfBoundsException();
+			}
+			moveTo(pos);
+			return stack[depth - 1].data;
+		}
+
+		/**
+		 * Adds an element to the TreeList, searching for its place from the previously
+		 * reached position. The cursor is then at the new element.
+		 * 
+		 * @param e the element to add
+		 * @return true, as the TreeList always changes
+		 */
+		public boolean add(T e) {
+			checkMutable();
+			checkCapacity(1);
+			revalidate();
+			if (root == NULL_NODE) {
+				TreeList.this.add(e);
+				moveTo(0);
+				return true;
+			}
+			if (depth == 0) {
+				push(root, 0, size, -1, -1);
+			}
+			// climb to the lowest remembered subtree whose bounds admit e
+			while (depth > 1 && !admits(depth - 1, e)) {
+				depth--;
+			}
+			// descend by comparison to the insertion point
+			Node<T> node = stack[depth - 1];
+			boolean left;
+			while (true) {
+				left = compare(e, node.data) <= 0;
+				Node<T> child = left ? node.left : node.right;
+				if (child == NULL_NODE) {
+					break;
+				}
+				descend(left);
+				node = child;
+			}
+			int d = depth - 1;
+			int pos = left ? lo[d] + node.rank() : lo[d] + node.rank() + 1;
+
+			// insert along the remembered path, then remember the path to the new node
+			ensurePath();
+			for (int i = 0; i < d; i++) {
+				path[i] = stack[i];
+				pathLeft[i] = stack[i + 1] == stack[i].left;
+			}
+			path[d] = node;
+			pathLeft[d] = left;
+			link(depth, e);
+			depth = 0;
+			expectedModCount = modCount;
+			moveTo(pos);
+			return true;
+		}
+
+		/**
+		 * @return the position the cursor last reached, or -1 if it has not reached
+		 *         one since it was created or the TreeList was last modified
+		 */
+		public int index() {
+			revalidate();
+			return depth == 0 ? -1 : lo[depth - 1] + stack[depth - 1].rank();
+		}
+
+		/**
+		 * Forgets the remembered path if the TreeList was modified since it was
+		 * remembered
+		 */
+		private void revalidate() {
+			if (expectedModCount != modCount) {
+				depth = 0;
+				expectedModCount = modCount;
+			}
+		}
+
+		/**
+		 * Remembers the path to a position, climbing from the previous position only
+		 * as far as the lowest subtree that contains the new one
+		 * 
+		 * @param pos a position within the range of the TreeList
+		 */
+		private void moveTo(int pos) {
+			revalidate();
+			while (depth > 0 && (pos < lo[depth - 1] || pos >= hi[depth - 1])) {
+				depth--;
+			}
+			if (depth == 0) {
+				push(root, 0, size, -1, -1);
+			}
+			while (true) {
+				int at = lo[depth - 1] + stack[depth - 1].rank();
+				if (pos == at) {
+					return;
+				}
+				descend(pos < at);
+			}
+		}
+
+		/**
+		 * Extends the remembered path by one child of its last node
+		 * 
+		 * @param left true to step to the left child, false for the right child
+		 */
+		private void descend(boolean left) {
+			int d = depth - 1;
+			Node<T> node = stack[d];
+			int at = lo[d] + node.rank();
+			if (left) {
+				push(node.left, lo[d], at, lowerIndex[d], d);
+			} else {
+				push(node.right, at + 1, hi[d], d, upperIndex[d]);
+			}
+		}
+
+		/**
+		 * Appends a node to the remembered path
+		 * 
+		 * @param node  the node
+		 * @param from  the first position in its subtree
+		 * @param to    one past the last position in its subtree
+		 * @param lower the depth of the nearest ancestor before the subtree, or -1
+		 * @param upper the depth of the nearest ancestor after the subtree, or -1
+		 */
+		private void push(Node<T> node, int from, int to, int lower, int upper) {
+			stack[depth] = node;
+			lo[depth] = from;
+			hi[depth] = to;
+			lowerIndex[depth] = lower;
+			upperIndex[depth] = upper;
+			depth++;
+		}
+
+		/**
+		 * Determines if an insertion of e from the root would pass through a
+		 * remembered subtree. Only the nearest ancestor on each side needs to be
+		 * compared, as it is the tightest bound.
+		 * 
+		 * @param d the depth of the subtree on the remembered path
+		 * @param e the element to insert
+		 * @return true if e belongs in the subtree
+		 */
+		private boolean admits(int d, T e) {
+			return (upperIndex[d] < 0 || compare(e, stack[upperIndex[d]].data) <= 0)
+					&& (lowerIndex[d] < 0 || compare(e, stack[lowerIndex[d]].data) > 0);
+		}
+	}
+
+	/**
+	 * Live view of the TreeList in reverse order. The view holds no elements of its
+	 * own, so every operation reads or changes the TreeList it came from.
+	 */
+	public class DescendingView extends AbstractCollection<T> {
+
+		/**
+		 * Creates a view of the enclosing TreeList
+		 */
+		private DescendingView() {
+		}
+
+		/**
+		 * @return a new Lazy descending iterator of the TreeList
+		 */
+		@Override
+		public Iterator<T> iterator() {
+			return descendingIterator();
+		}
+
+		/**
+		 * Creates an iterator over the view starting at the first element less than
+		 * or equal to e, which is the first one at or after e in the view's order
+		 * 
+		 * @param e the element to start from
+		 * @return an iterator over the view starting at e
+		 */
+		public Iterator<T> iteratorFrom(T e) {
+			return descendingIteratorFrom(e);
+		}
+
+		/**
+		 * @return the number of elements in the TreeList
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @param o the element to find
+		 * @return true if the TreeList contains o
+		 * @throws ClassCastException if o cannot be compared with the elements
+		 */
+		@Override
+		public boolean contains(Object o) throws ClassCastException {
+			return TreeList.this.contains(o);
+		}
+
+		/**
+		 * Retrieves the element at a position counted from the largest element
+		 * 
+		 * @param pos position in the view
+		 * @return the element at pos in the view, which is at size - 1 - pos in the
+		 *         TreeList
+		 * @throws IndexOutOfBoundsException if the given position is outside the range
+		 *                                   of the TreeList
+		 */
+		public T get(int pos) throws IndexOutOfBoundsException {
+			if (pos < 0 || pos >= size) {
+				throw new IndexOutOfBoundsException();
+			}
+			return TreeList.this.get(size - 1 - pos);
+		}
+
+		/**
+		 * @return the first element of the view, which is the largest of the TreeList
+		 * @throws NoSuchElementException if the TreeList is empty
+		 */
+		public T first() throws NoSuchElementException {
+			return TreeList.this.last();
+		}
+
+		/**
+		 * @return the last element of the view, which is the smallest of the TreeList
+		 * @throws NoSuchElementException if the TreeList is empty
+		 */
+		public T last() throws NoSuchElementException {
+			return TreeList.this.first();
+		}
+
+		/**
+		 * Adds an element to the TreeList, where it takes its ordered place
+		 * 
+		 * @param e the element to add
+		 * @return true
+		 */
+		@Override
+		public boolean add(T e) {
+			return TreeList.this.add(e);
+		}
+
+		/**
+		 * Removes a single occurrence of an element from the TreeList
+		 * 
+		 * @param o the element to remove
+		 * @return true if an element was removed
+		 * @throws ClassCastException if o cannot be compared with the elements
+		 */
+		@Override
+		public boolean remove(Object o) throws ClassCastException {
+			return TreeList.this.remove(o);
+		}
+
+		/**
+		 * Removes every element from the TreeList
+		 */
+		@Override
+		public void clear() {
+			TreeList.this.clear();
+		}
+	}
+
+	/**
+	 * Live view of the elements of the TreeList within a range of values. The view
+	 * stores only its bounds. Positions are found from ranks whenever they are
+	 * needed, so the view stays correct as the TreeList changes.
+	 */
+	public class RangeView extends AbstractCollection<T> {
+
+		private final boolean hasLo; // false if the range has no lower bound
+		private final T lo; // the lowest value of the range (inclusive)
+		private final boolean hasHi; // false if the range has no upper bound
+		private final T hi; // the highest value of the range (exclusive)
+
+		/**
+		 * Creates a view of a range of the enclosing TreeList
+		 * 
+		 * @param hasLo whether the range has a lower bound
+		 * @param lo    the lowest value of the range (inclusive)
+		 * @param hasHi whether the range has an upper bound
+		 * @param hi    the highest value of the range (exclusive)
+		 */
+		private RangeView(boolean hasLo, T lo, boolean hasHi, T hi) {
+			this.hasLo = hasLo;
+			this.lo = lo;
+			this.hasHi = hasHi;
+			this.hi = hi;
+		}
+
+		/**
+		 * @return the position in the TreeList of the first element of the range
+		 */
+		private int from() {
+			return hasLo ? lowerBound(lo) : 0;
+		}
+
+		/**
+		 * @return one past the position in the TreeList of the last element of the
+		 *         range
+		 */
+		private int to() {
+			return hasHi ? lowerBound(hi) : size;
+		}
+
+		/**
+		 * Determines whether a value lies within the bounds of the range
+		 * 
+		 * @param e the value to check
+		 * @return true if e is not less than lo and less than hi
+		 */
+		private boolean inRange(T e) {
+			return (!hasLo || compare(e, lo) >= 0) && (!hasHi || compare(e, hi) < 0);
+		}
+
+		/**
+		 * @return an in-order iterator over the elements of the range
+		 */
+		@Override
+		public Iterator<T> iterator() {
+			if (snapshotIteration) {
+				return snapshot().new RangeView(hasLo, lo, hasHi, hi).iterator();
+			}
+			int from = from();
+			return new BoundedIterator(new LazyInOrderIterator(from), to() - from);
+		}
+
+		/**
+		 * @return an iterator over the elements of the range from the largest to the
+		 *         smallest
+		 */
+		public Iterator<T> descendingIterator() {
+			if (snapshotIteration) {
+				return snapshot().new RangeView(hasLo, lo, hasHi, hi).descendingIterator();
+			}
+			int to = to();
+			return new BoundedIterator(new DescendingIterator(to - 1), to - from());
+		}
+
+		/**
+		 * @return the number of elements within the range, found in O(log(n)) time
+		 */
+		@Override
+		public int size() {
+			return to() - from();
+		}
+
+		/**
+		 * @return true if no element lies within the range
+		 */
+		@Override
+		public boolean isEmpty() {
+			return size() == 0;
+		}
+
+		/**
+		 * @param o the element to find
+		 * @return true if o lies within the range and the TreeList contains it
+		 * @throws ClassCastException if o cannot be compared with the elements
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean contains(Object o) throws ClassCastException {
+			return inRange((T) o) && TreeList.this.contains(o);
+		}
+
+		/**
+		 * Retrieves the element at a position relative to the start of the range
+		 * 
+		 * @param pos position in the range
+		 * @return the element at pos within the range
+		 * @throws IndexOutOfBoundsException if the given position is outside the range
+		 */
+		public T get(int pos) throws IndexOutOfBoundsException {
+			int from = from();
+			if (pos < 0 || pos >= to() - from) {
+				throw new IndexOutOfBoundsException();
+			}
+			return TreeList.this.get(from + pos);
+		}
+
+		/**
+		 * @return the smallest element within the range
+		 * @throws NoSuchElementException if no element lies within the range
+		 */
+		public T first() throws NoSuchElementException {
+			int from = from();
+			if (from >= to()) {
+				throw new NoSuchElementException();
+			}
+			return TreeList.this.get(from);
+		}
+
+		/**
+		 * @return the largest element within the range
+		 * @throws NoSuchElementException if no element lies within the range
+		 */
+		public T last() throws NoSuchElementException {
+			int to = to();
+			if (from() >= to) {
+				throw new NoSuchElementException();
+			}
+			return TreeList.this.get(to - 1);
+		}
+
+		/**
+		 * Adds an element to the TreeList
+		 * 
+		 * @param e the element to add
+		 * @return true
+		 * @throws IllegalArgumentException if e lies outside the range
+		 */
+		@Override
+		public boolean add(T e) throws IllegalArgumentException {
+			if (!inRange(e)) {
+				throw new IllegalArgumentException("element is outside the range");
+			}
+			return TreeList.this.add(e);
+		}
+
+		/**
+		 * Removes a single occurrence of an element from the TreeList, if it lies
+		 * within the range
+		 * 
+		 * @param o the element to remove
+		 * @return true if an element was removed
+		 * @throws ClassCastException if o cannot be compared with the elements
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean remove(Object o) throws ClassCastException {
+			return inRange((T) o) && TreeList.this.remove(o);
+		}
+
+		/**
+		 * Removes every element within the range from the TreeList in O(log(n)) time
+		 */
+		@Override
+		public void clear() {
+			int from = from(), to = to();
+			if (from < to) {
+				removeRange(from, to);
+			}
+		}
+	}
+
+	/**
+	 * A finger for looking up an ascending sequence of elements. The finger keeps
+	 * the nodes not yet passed whose left subtrees have been, so each lookup
+	 * resumes from the previous one: it climbs only as far as needed to pass the
+	 * skipped elements, then descends. Looking up m ascending elements takes
+	 * O(m log(n/m + 1)) time in total.
+	 */
+	private class Finger {
+
+		private final Node<T>[] stack = newStack(); // pending nodes, the least on top
+		private int depth; // the number of pending nodes
+		private boolean started; // false until the first lookup descends from the root
+
+		/**
+		 * Finds the first node whose element is greater than or equal to e. Each
+		 * element looked up must be greater than or equal to the previous one.
+		 * 
+		 * @param e the element to look up
+		 * @return the first node not less than e, or null if there is none
+		 */
+		private Node<T> seek(T e) {
+			if (!started) {
+				started = true;
+				descend(root, e);
+			}
+			while (depth > 0) {
+				Node<T> top = stack[depth - 1];
+				if (compare(top.data, e) >= 0) {
+					return top;
+				}
+				depth--;
+				// the right subtree lies before the next pending node, so skip it whole
+				// if that node is still too small
+				if (depth == 0 || compare(stack[depth - 1].data, e) >= 0) {
+					descend(top.right, e);
+				}
+			}
+			return null;
 		}
 
-		private T data; // the data contained by this node
-		private Node left, right; // the left and right subtrees of this node
-		private int rank; // the in-order position of this node within its own subtree.
-		private Code balance; // the balance of this node (either tipped left, equal, or tipped right)
+		/**
+		 * Descends a subtree toward e, keeping the nodes not less than e as pending
+		 * 
+		 * @param node the root of the subtree
+		 * @param e    the element being looked up
+		 */
+		private void descend(Node<T> node, T e) {
+			while (node != NULL_NODE) {
+				if (compare(node.data, e) >= 0) {
+					stack[depth++] = node;
+					node = node.left;
+				} else {
+					node = node.right;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lazy in-order iterator implementation. Pending nodes are kept in a plain
+	 * array sized to the maximum height of the tree, so iterating neither locks nor
+	 * grows a stack.
+	 */
+	private class LazyInOrderIterator implements Iterator<T> {
+
+		private final Node<T>[] stack;
+		private int depth;
+		private Node<T> current;
+		private int index; // the position of the element next() would return
+		private int lastReturned = -1; // the position of the element last returned, or -1 if it cannot be removed
+		private int expectedModCount = modCount; // the modCount of the TreeList this iterator is consistent with
 
 		/**
-		 * Creates a new null node, whose data, left, and right nodes are set to null.
+		 * Creates a new Lazy in-order iterator
 		 */
-		private Node() {
-			this.left = null;
-			this.right = null;
-			this.data = null;
-			this.balance = Code.SAME;
+		public LazyInOrderIterator() {
+			stack = newStack();
+			current = root;
 		}
 
 		/**
-		 * Creates a Node with the specified data and left and right null nodes
+		 * Creates a new Lazy in-order iterator whose first element is the one at the
+		 * given position, found with a single descent from the root
 		 * 
-		 * @param element representing the data for this node to contain
+		 * @param pos the position of the first element to return
 		 */
-		private Node(T data) {
-			this.left = NULL_NODE;
-			this.right = NULL_NODE;
-			this.data = data;
-			this.balance = Code.SAME;
+		public LazyInOrderIterator(int pos) {
+			stack = newStack();
+			seek(pos);
 		}
 
 		/**
-		 * Adds the specified element based on the natural ordering of the element
+		 * Rebuilds the stack so that the next element returned is the one at the given
+		 * position, with a single descent from the root
 		 * 
-		 * @param element  the element to add
-		 * @param NodeInfo object to track key information throughout the insertion
-		 *                 process
-		 * @return Node representing the new root of the subtree with the new addition
+		 * @param pos the position of the next element to return
 		 */
-		private Node add(T ch, NodeInfo info) {
-			if (this == NULL_NODE) {
-				info.succeeded = true;
-				return new Node(ch);
+		private void seek(int pos) {
+			index = pos;
+			depth = 0;
+			current = NULL_NODE;
+			Node<T> node = root;
+			while (node != NULL_NODE) {
+				if (pos <= node.rank()) {
+					stack[depth++] = node;
+					if (pos == node.rank()) {
+						break;
+					}
+					node = node.left;
+				} else {
+					pos -= node.rank() + 1;
+					node = node.right;
+				}
 			}
-			if (ch.compareTo(this.data) > 0) {
-				right = right.add(ch, info);
-				return handleRightInsertion(info);
-			} else {
-				rank++;
-				left = left.add(ch, info);
-				return handleLeftInsertion(info);
+		}
+
+		/**
+		 * @return true if the tree has a next element to iterate over, otherwise false
+		 */
+		@Override
+		public boolean hasNext() {
+			return current != NULL_NODE || depth > 0;
+		}
+
+		/**
+		 * Gets the subsequent element of the tree
+		 * 
+		 * @return the next element of the tree
+		 */
+		@Override
+		public T next() {
+			checkModCount(expectedModCount);
+			if (!hasNext()) {
+				throw new NoSuchElementException();
 			}
+			while (current != NULL_NODE) {
+				stack[depth++] = current;
+				current = current.left;
+			}
+			Node<T> node = stack[--depth];
+			current = node.right;
+			lastReturned = index++;
+			return node.data;
 		}
 
 		/**
-		 * Determines new balance codes for the right subtree based on the insertion
+		 * Removes the element last returned by next. The node is removed by its
+		 * position, so exactly that element goes even among equal duplicates, and the
+		 * stack is then rebuilt at the following element with one descent, so the
+		 * scan continues where it left off. Both steps take O(log(n)) time.
 		 * 
-		 * @param info NodeInfo object to store rotation/balance code information
-		 * @return the modified root
+		 * @throws IllegalStateException if next has not been called since the last
+		 *                               call to remove
 		 */
-		private Node handleRightInsertion(NodeInfo info) {
-			if (balance == Code.SAME && !info.stopRotating) {
-				balance = Code.RIGHT;
-			} else if (balance == Code.LEFT && !info.stopRotating) {
-				balance = Code.SAME;
-				info.stopRotating = true;
-			} else if (balance == Code.RIGHT && !info.stopRotating) {
-				info.stopRotating = true;
-				if (right.balance == Code.LEFT) {
-					return doubleRotateLeft(this, this.right, this.right.left, info);
-				}
-				return singleRotateLeft(this, this.right, info, false);
+		@Override
+		public void remove() throws IllegalStateException {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
 			}
-			return this;
+			checkModCount(expectedModCount);
+			removeAt(lastReturned);
+			expectedModCount = modCount;
+			seek(lastReturned);
+			lastReturned = -1;
 		}
 
 		/**
-		 * Determines new balance codes for the left subtree based on the insertion
+		 * Performs an action for each remaining element of the tree
 		 * 
-		 * @param info NodeInfo object to store rotation/balance code information
-		 * @return the modified root
+		 * @param action the action to perform
 		 */
-		private Node handleLeftInsertion(NodeInfo info) {
-			if (balance == Code.SAME && !info.stopRotating) {
-				balance = Code.LEFT;
-			} else if (balance == Code.RIGHT && !info.stopRotating) {
-				balance = Code.SAME;
-				info.stopRotating = true;
-			} else if (balance == Code.LEFT && !info.stopRotating) {
-				info.stopRotating = true;
-				if (left.balance == Code.RIGHT) {
-					return doubleRotateRight(this, this.left, this.left.right, info);
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			while (current != NULL_NODE || depth > 0) {
+				while (current != NULL_NODE) {
+					stack[depth++] = current;
+					current = current.left;
 				}
-				return singleRotateRight(this, this.left, info, false);
+				Node<T> node = stack[--depth];
+				current = node.right;
+				lastReturned = index++;
+				action.accept(node.data);
+				checkModCount(expectedModCount);
 			}
-			return this;
 		}
+	}
+
+	/**
+	 * Lazy iterator from the largest element of the TreeList to the smallest. It is
+	 * the mirror image of LazyInOrderIterator: the stack holds the ancestors whose
+	 * element is still to come, and right children are pushed where that one
+	 * pushes left.
+	 */
+	private class DescendingIterator implements Iterator<T> {
+
+		private final Node<T>[] stack;
+		private int depth;
+		private Node<T> current;
+		private int index; // the position of the element next() would return
+		private int lastReturned = -1; // the position of the element last returned, or -1 if it cannot be removed
+		private int expectedModCount = modCount; // the modCount of the TreeList this iterator is consistent with
 
 		/**
-		 * removes the given element, rotating as necessary. The TreeList is not
-		 * modified if the given element does not exist.
-		 * 
-		 * @param element the element to remove
-		 * @param info    wrapper storing rotation/balance code information
-		 * @return the modified root
+		 * Creates a new Lazy descending iterator
 		 */
-		private Node remove(T element, NodeInfo info) {
+		public DescendingIterator() {
+			stack = newStack();
+			current = root;
+			index = size - 1;
+		}
 
-			// find position or traverse tree until found
-			if (element.compareTo(this.data) == 0) {
-				info.succeeded = true;
+		/**
+		 * Creates a new Lazy descending iterator whose first element is the one at the
+		 * given position, found with a single descent from the root
+		 * 
+		 * @param pos the position of the first element to return, or -1 to return
+		 *            nothing
+		 */
+		public DescendingIterator(int pos) {
+			stack = newStack();
+			seek(pos);
+		}
 
-				// removes current node and replaces with
-				// child, or in-order successor if 2 children
-				if (this.left == NULL_NODE && this.right == NULL_NODE) {
-					return NULL_NODE;
-				} else if (this.left == NULL_NODE) {
-					return this.right;
-				} else if (this.right == NULL_NODE) {
-					return this.left;
-				} else {
-					// swaps with the next in-order successor's
-					// data, then removes that successor
-					data = right.get(0).data;
-					right = right.remove(data, info);
-					return handleRightDeletion(info);
-				}
-			} else if (element.compareTo(this.data) < 0) {
-				if (left == NULL_NODE) {
-					return this;
-				}
-				rank--;
-				left = left.remove(element, info);
-				return handleLeftDeletion(info);
-			} else {
-				if (right == NULL_NODE) {
-					return this;
-				}
-				right = right.remove(element, info);
-				return handleRightDeletion(info);
-			}
-		}
-
-		/**
-		 * Determines balance codes post-deletion in left subtree <br>
-		 * Determines changes to balance codes, and whether to keep monitoring changes
-		 * up the tree
-		 * 
-		 * @param info NodeInfo to store deletion/balance code info
-		 * @return the node with modified balance codes
-		 */
-		private Node handleLeftDeletion(NodeInfo info) {
-			// only adjust if still considering balance changes
-			if (!info.stopRotating) {
-				if (this.balance == Code.LEFT) {
-					this.balance = Code.SAME;
-				} else if (this.balance == Code.RIGHT) {
-					// trigger rotation stuff
-					if (this.right.balance == Code.RIGHT) {
-						return singleRotateLeft(this, this.right, info, false);
-					} else if (this.right.balance == Code.SAME) {
-						// special situation with balance codes after rotation
-						info.stopRotating = true;
-						return singleRotateLeft(this, this.right, info, true);
-					} else {
-						return doubleRotateLeft(this, this.right, this.right.left, info);
+		/**
+		 * Rebuilds the stack so that the next element returned is the one at the given
+		 * position, with a single descent from the root
+		 * 
+		 * @param pos the position of the next element to return, or -1 to return
+		 *            nothing
+		 */
+		private void seek(int pos) {
+			index = pos;
+			depth = 0;
+			current = NULL_NODE;
+			Node<T> node = root;
+			while (node != NULL_NODE) {
+				if (pos >= node.rank()) {
+					stack[depth++] = node;
+					if (pos == node.rank()) {
+						break;
 					}
+					pos -= node.rank() + 1;
+					node = node.right;
 				} else {
-					this.balance = Code.RIGHT;
-					info.stopRotating = true;
+					node = node.left;
 				}
 			}
-			return this;
 		}
 
 		/**
-		 * Determines balance codes post-deletion in right subtree <br>
-		 * Determines changes to balance codes, and whether to keep monitoring changes
-		 * up the tree
+		 * @return true if the tree has a next element to iterate over, otherwise false
+		 */
+		@Override
+		public boolean hasNext() {
+			return current != NULL_NODE || depth > 0;
+		}
+
+		/**
+		 * Gets the preceding element of the tree
 		 * 
-		 * @param info NodeInfo to store deletion/balance code info
-		 * @return the node with modified balance codes
+		 * @return the next element of the tree in descending order
 		 */
-		private Node handleRightDeletion(NodeInfo info) {
-			// only adjust if still considering balance changes
-			if (!info.stopRotating) {
-				if (this.balance == Code.LEFT) {
-					// trigger rotation stuff
-					if (this.left.balance == Code.LEFT) {
-						return singleRotateRight(this, this.left, info, false);
-					} else if (this.left.balance == Code.SAME) {
-						// special situation with balance codes after rotation
-						info.stopRotating = true;
-						return singleRotateRight(this, this.left, info, true);
-					} else {
-						return doubleRotateRight(this, this.left, this.left.right, info);
-					}
-				} else if (this.balance == Code.RIGHT) {
-					this.balance = Code.SAME;
-				} else {
-					this.balance = Code.LEFT;
-					info.stopRotating = true;
-				}
+		@Override
+		public T next() {
+			checkModCount(expectedModCount);
+			if (!hasNext()) {
+				throw new NoSuchElementException();
 			}
-			return this;
+			while (current != NULL_NODE) {
+				stack[depth++] = current;
+				current = current.right;
+			}
+			Node<T> node = stack[--depth];
+			current = node.left;
+			lastReturned = index--;
+			return node.data;
 		}
 
 		/**
-		 * Performs a double right rotation
+		 * Removes the element last returned by next, by its position, and rebuilds the
+		 * stack at the following element in O(log(n)) time
 		 * 
-		 * @param parent     the parent node to be rotated
-		 * @param child      the child node to be rotated
-		 * @param grandchild the Grandchild node to be rotated
-		 * @param info       NodeInfo object storing rotation information
-		 * @return the new root of the rotated tree
+		 * @throws IllegalStateException if next has not been called since the last
+		 *                               call to remove
 		 */
-		private Node doubleRotateRight(Node parent, Node child, Node grandchild, NodeInfo info) {
-			Code grandchildBalance = grandchild.balance;
-			Node rotatedNode = singleRotateRight(parent, singleRotateLeft(child, grandchild, info, false), info, false);
-			if (grandchildBalance == Code.RIGHT) {
-				rotatedNode.left.balance = Code.LEFT;
-			} else if (grandchildBalance == Code.LEFT) {
-				rotatedNode.right.balance = Code.RIGHT;
+		@Override
+		public void remove() throws IllegalStateException {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
 			}
-			return rotatedNode;
+			checkModCount(expectedModCount);
+			removeAt(lastReturned);
+			expectedModCount = modCount;
+			seek(lastReturned - 1);
+			lastReturned = -1;
 		}
 
 		/**
-		 * Performs a double left rotation
+		 * Performs an action for each remaining element of the tree
 		 * 
-		 * @param parent     the parent node to be rotated
-		 * @param child      the child node to be rotated
-		 * @param grandchild the grandchild node to be rotated
-		 * @param info       NodeInfo object storing rotation information
-		 * @return the new root of the rotated tree
+		 * @param action the action to perform
 		 */
-		private Node doubleRotateLeft(Node parent, Node child, Node grandchild, NodeInfo info) {
-			Code grandchildBalance = grandchild.balance;
-			Node rotatedNode = singleRotateLeft(parent, singleRotateRight(child, child.left, info, false), info, false);
-			if (grandchildBalance == Code.RIGHT) {
-				rotatedNode.left.balance = Code.LEFT;
-			} else if (grandchildBalance == Code.LEFT) {
-				rotatedNode.right.balance = Code.RIGHT;
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			while (current != NULL_NODE || depth > 0) {
+				while (current != NULL_NODE) {
+					stack[depth++] = current;
+					current = current.right;
+				}
+				Node<T> node = stack[--depth];
+				current = node.left;
+				lastReturned = index--;
+				action.accept(node.data);
+				checkModCount(expectedModCount);
 			}
-			return rotatedNode;
+		}
+	}
+
+	/**
+	 * Iterator that stops after a fixed number of elements of another iterator,
+	 * used to end a traversal at the edge of a range
+	 */
+	private class BoundedIterator implements Iterator<T> {
+
+		private final Iterator<T> iterator; // the iterator positioned at the start of the range
+		private int remaining; // the number of elements left in the range
+
+		/**
+		 * Creates an iterator over the next elements of another iterator
+		 * 
+		 * @param iterator  the iterator to read from
+		 * @param remaining the number of elements to read
+		 */
+		public BoundedIterator(Iterator<T> iterator, int remaining) {
+			this.iterator = iterator;
+			this.remaining = remaining;
+		}
+
+		/**
+		 * @return true if the range has a next element to iterate over, otherwise
+		 *         false
+		 */
+		@Override
+		public boolean hasNext() {
+			return remaining > 0;
 		}
 
 		/**
-		 * Performs a single right rotation
+		 * Gets the subsequent element of the range
 		 * 
-		 * @param parent            the parent node to be rotated
-		 * @param child             the child node to be rotated
-		 * @param info              NodeInfo object storing rotation information
-		 * @param isSpecialDeletion true if the rotation does not yield = balance codes
-		 * @return the new root of the rotated tree
+		 * @return the next element of the range
 		 */
-		private Node singleRotateRight(Node parent, Node child, NodeInfo info, boolean isSpecialDeletion) {
-			Node temp = child.right;
-			child.right = parent;
-			parent.left = temp;
-			if (isSpecialDeletion) {
-				parent.balance = Code.LEFT;
-				child.balance = Code.RIGHT;
-			} else {
-				parent.balance = Code.SAME;
-				child.balance = Code.SAME;
+		@Override
+		public T next() {
+			if (remaining <= 0) {
+				throw new NoSuchElementException();
 			}
-			parent.rank = parent.rank - child.rank - 1;
-			return child;
+			remaining--;
+			return iterator.next();
 		}
 
 		/**
-		 * Performs a single left rotation
+		 * Removes the element last returned by next from the TreeList
 		 * 
-		 * @param parent            the parent node to be rotated
-		 * @param child             the child node to be rotated
-		 * @param info              NodeInfo object storing rotation information
-		 * @param isSpecialDeletion true if the rotation does not yield = balance codes
-		 * @return the new root of the rotated tree
+		 * @throws IllegalStateException if next has not been called since the last
+		 *                               call to remove
 		 */
-		private Node singleRotateLeft(Node parent, Node child, NodeInfo info, boolean isSpecialDeletion) {
-			Node temp = child.left;
-			child.left = parent;
-			parent.right = temp;
-			if (isSpecialDeletion) {
-				parent.balance = Code.RIGHT;
-				child.balance = Code.LEFT;
-			} else {
-				parent.balance = Code.SAME;
-				child.balance = Code.SAME;
+		@Override
+		public void remove() throws IllegalStateException {
+			iterator.remove();
+		}
+
+		/**
+		 * Performs an action for each remaining element of the range
+		 * 
+		 * @param action the action to perform
+		 */
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			for (; remaining > 0; remaining--) {
+				action.accept(iterator.next());
 			}
-			child.rank += parent.rank + 1;
-			return child;
+		}
+	}
+
+	/**
+	 * Bidirectional iterator over the TreeList. Elements are reached through a
+	 * Cursor, so starting at any position takes a single descent from the root, and
+	 * each further step in either direction takes amortized O(1) time. The
+	 * TreeList stays sorted, so elements can be removed through the iterator but
+	 * not set or added.
+	 */
+	private class TreeListIterator implements ListIterator<T> {
+
+		private final Cursor cursor = new Cursor(); // reaches each element from the previous one
+		private int index; // the position of the element next() would return
+		private int lastReturned = -1; // the position of the element last returned, or -1 if it cannot be removed
+		private int expectedModCount = modCount; // the modCount of the TreeList this iterator is consistent with
+
+		/**
+		 * Creates an iterator whose first call to next returns the element at the
+		 * given position
+		 * 
+		 * @param index the position of the first element to return
+		 */
+		public TreeListIterator(int index) {
+			this.index = index;
+		}
 
+		/**
+		 * @return true if there is an element after the iterator
+		 */
+		@Override
+		public boolean hasNext() {
+			return index < size;
 		}
 
 		/**
-		 * Returns a String representation of the TreeList using an in-order traversal
+		 * Gets the element after the iterator and advances past it
 		 * 
-		 * @param sb the StringBuilder object to add modifications to
+		 * @return the next element
 		 */
-		private void toString(StringBuilder sb) {
-			if (this.equals(NULL_NODE))
-				return;
-			left.toString(sb);
-			sb.append(String.valueOf(data));
-			sb.append(", ");
-			right.toString(sb);
+		@Override
+		public T next() {
+			checkModCount(expectedModCount);
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastReturned = index;
+			return cursor.get(index++);
 		}
 
 		/**
-		 * Retrieves the Node at a given position
+		 * @return true if there is an element before the iterator
+		 */
+		@Override
+		public boolean hasPrevious() {
+			return index > 0;
+		}
+
+		/**
+		 * Gets the element before the iterator and moves back past it
 		 * 
-		 * @param pos the integer position to locate the node at relative to the current
-		 *            subtree
-		 * @return the Node found at the specified position
+		 * @return the previous element
 		 */
-		private Node get(int pos) {
-			if (rank == pos) {
-				return this;
-			} else if (pos <= rank) {
-				return left.get(pos);
+		@Override
+		public T previous() {
+			checkModCount(expectedModCount);
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
 			}
-			return right.get(pos - rank - 1);
+			lastReturned = --index;
+			return cursor.get(index);
+		}
+
+		/**
+		 * @return the position of the element next() would return
+		 */
+		@Override
+		public int nextIndex() {
+			return index;
+		}
+
+		/**
+		 * @return the position of the element previous() would return
+		 */
+		@Override
+		public int previousIndex() {
+			return index - 1;
 		}
 
 		/**
-		 * Determines if this Node or one of it's subtrees contains the specified
-		 * element
+		 * Removes the element last returned by next or previous, by its position, so
+		 * exactly that element goes even among equal duplicates
 		 * 
-		 * @param element the element to determine containment for
-		 * @return true if the element is contained within this node or one of it's
-		 *         subtrees, otherwise false
+		 * @throws IllegalStateException if neither next nor previous has been called
+		 *                               since the last call to remove
 		 */
-		private boolean contains(T element) {
-			if (this == NULL_NODE) {
-				return false;
+		@Override
+		public void remove() throws IllegalStateException {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
 			}
-			int comparison = element.compareTo(this.data);
-			if (comparison == 0) {
-				return true;
-			} else if (comparison < 0) {
-				return left.contains(element);
-			} else {
-				return right.contains(element);
+			checkModCount(expectedModCount);
+			removeAt(lastReturned);
+			expectedModCount = modCount;
+			if (lastReturned < index) {
+				index--;
 			}
+			lastReturned = -1;
 		}
-	}
 
-	/**
-	 * Helper Class: Node Info Stores certain info that helps track rotations and
-	 * deletion value up the tree
-	 */
-	private class NodeInfo {
-		// instance fields
-		private boolean stopRotating;
-		private boolean succeeded;
+		/**
+		 * Unsupported, as replacing an element could break the ordering
+		 * 
+		 * @param e ignored
+		 */
+		@Override
+		public void set(T e) {
+			throw new UnsupportedOperationException();
+		}
 
-		public NodeInfo() {
-			this.stopRotating = false;
-			this.succeeded = false;
+		/**
+		 * Unsupported, as the position of an element is determined by its ordering
+		 * 
+		 * @param e ignored
+		 */
+		@Override
+		public void add(T e) {
+			throw new UnsupportedOperationException();
 		}
 	}
 
 	/**
-	 * Lazy in-order iterator implementation
+	 * Spliterator over a range of positions in the TreeList. Splitting halves the
+	 * range without touching the tree, and the traversal of a range is only seeded
+	 * once its first element is needed.
 	 */
-	private class LazyInOrderIterator implements Iterator<T> {
+	private class RankSpliterator implements Spliterator<T> {
 
-		private Stack<Node> s;
-		private Node current;
+		private int index; // the position of the next element to return
+		private final int fence; // one past the position of the last element to return
+		private LazyInOrderIterator iterator; // positioned at index once traversal starts
+		private final int expectedModCount; // the modCount of the TreeList when the range was fixed
 
 		/**
-		 * Creates a new Lazy in-order iterator
+		 * Creates a Spliterator over a range of positions
+		 * 
+		 * @param index the first position of the range (inclusive)
+		 * @param fence the last position of the range (exclusive)
 		 */
-		public LazyInOrderIterator() {
-			s = new Stack<Node>();
-			current = root;
+		public RankSpliterator(int index, int fence) {
+			this(index, fence, modCount);
 		}
 
 		/**
-		 * @return true if the tree has a next element to iterate over, otherwise false
+		 * Creates a Spliterator over a range of positions that were fixed when the
+		 * TreeList had the given modCount
+		 * 
+		 * @param index            the first position of the range (inclusive)
+		 * @param fence            the last position of the range (exclusive)
+		 * @param expectedModCount the modCount the range is valid for
+		 */
+		private RankSpliterator(int index, int fence, int expectedModCount) {
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+
+		/**
+		 * Performs an action on the next element, if there is one
+		 * 
+		 * @param action the action to perform
+		 * @return false if no elements remained, otherwise true
 		 */
 		@Override
-		public boolean hasNext() {
-			return current != NULL_NODE || !s.isEmpty();
+		public boolean tryAdvance(Consumer<? super T> action) {
+			checkModCount(expectedModCount);
+			if (index >= fence) {
+				return false;
+			}
+			if (iterator == null) {
+				iterator = new LazyInOrderIterator(index);
+			}
+			index++;
+			action.accept(iterator.next());
+			return true;
 		}
 
 		/**
-		 * Gets the subsequent element of the tree
+		 * Performs an action on every remaining element
 		 * 
-		 * @return the next element of the tree
+		 * @param action the action to perform
 		 */
 		@Override
-		public T next() {
-			if (!hasNext()) {
-				throw new NoSuchElementException();
+		public void forEachRemaining(Consumer<? super T> action) {
+			checkModCount(expectedModCount);
+			if (index >= fence) {
+				return;
 			}
-			while (current != NULL_NODE) {
-				s.push(current);
-				current = current.left;
+			if (iterator == null) {
+				iterator = new LazyInOrderIterator(index);
 			}
-			Node node = s.pop();
-			current = node.right;
-			return node.data;
+			for (; index < fence; index++) {
+				action.accept(iterator.next());
+			}
+		}
+
+		/**
+		 * Splits off the first half of the remaining range
+		 * 
+		 * @return a Spliterator over the first half of the range, or null if the
+		 *         range is too small to split
+		 */
+		@Override
+		public Spliterator<T> trySplit() {
+			checkModCount(expectedModCount);
+			int mid = (index + fence) >>> 1;
+			if (mid <= index) {
+				return null;
+			}
+			Spliterator<T> prefix = new RankSpliterator(index, mid, expectedModCount);
+			index = mid;
+			iterator = null;
+			return prefix;
+		}
+
+		/**
+		 * @return the exact number of elements remaining
+		 */
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		/**
+		 * @return the characteristics of a TreeList Spliterator
+		 */
+		@Override
+		public int characteristics() {
+			return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.SIZED | Spliterator.SUBSIZED;
+		}
+
+		/**
+		 * @return the Comparator of the TreeList, or null if the elements are sorted
+		 *         by their natural ordering
+		 */
+		@Override
+		public Comparator<? super T> getComparator() {
+			return comparator;
 		}
 	}
 }
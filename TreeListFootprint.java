@@ -0,0 +1,173 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+/**
+ * Reports the memory footprint of TreeList: the field layout of a TreeList
+ * node, in the style of a JOL layout report, and the heap retained per element
+ * by a TreeList and a TreeSet of each size, excluding the elements themselves.
+ * Timing benchmarks live in the JMH module under jmh/.
+ *
+ * Usage: java TreeListFootprint [sizes]
+ * <br>
+ * e.g. java -Xmx8g TreeListFootprint 1000000,10000000
+ *
+ * @author Tal Belkind
+ *
+ */
+public class TreeListFootprint {
+	private static volatile long sink; // keeps measured structures reachable until they are counted
+
+	/**
+	 * Prints the footprint report
+	 *
+	 * @param args an optional comma-separated list of sizes
+	 */
+	public static void main(String[] args) {
+		footprint(args.length > 0 ? parseSizes(args[0]) : new int[] { 1_000_000 });
+	}
+
+	/**
+	 * Prints the field layout of a TreeList node, in the style of a JOL layout
+	 * report, and the heap retained per element by a TreeList and a TreeSet of
+	 * each size. Offsets come from the running JVM, so the report reflects flags
+	 * such as -XX:-UseCompressedOops.
+	 *
+	 * @param sizes the numbers of elements to measure
+	 */
+	private static void footprint(int[] sizes) {
+		System.out.println("TreeList.Node layout:");
+		System.out.printf("%6s %6s %-10s %s%n", "offset", "size", "type", "field");
+		List<Field> fields = new ArrayList<Field>();
+		for (Field field : TreeList.Node.class.getDeclaredFields()) {
+			if (!Modifier.isStatic(field.getModifiers())) {
+				fields.add(field);
+			}
+		}
+		fields.sort((a, b) -> Long.compare(fieldOffset(a), fieldOffset(b)));
+		long end = 0;
+		for (Field field : fields) {
+			long offset = fieldOffset(field);
+			int bytes = fieldSize(field);
+			end = Math.max(end, offset + bytes);
+			System.out.printf("%6d %6d %-10s %s%n", offset, bytes, field.getType().getSimpleName(), field.getName());
+		}
+		System.out.printf("instance size: %d bytes%n%n", (end + 7) & ~7L);
+
+		System.out.printf("%-10s %10s %14s%n", "structure", "size", "bytes/element");
+		for (int n : sizes) {
+			List<Integer> keys = TreeListFootprint.<Integer>keys(n, i -> Integer.valueOf(2 * i));
+			long before = usedHeap();
+			TreeList<Integer> list = new TreeList<Integer>();
+			for (Integer key : keys) {
+				list.add(key);
+			}
+			System.out.printf(Locale.ROOT, "%-10s %10d %14.2f%n", "TreeList", n, (double) (usedHeap() - before) / n);
+			sink += list.size();
+			list = null;
+
+			before = usedHeap();
+			TreeSet<Integer> set = new TreeSet<Integer>(keys);
+			System.out.printf(Locale.ROOT, "%-10s %10d %14.2f%n", "TreeSet", n, (double) (usedHeap() - before) / n);
+			sink += set.size();
+		}
+	}
+
+	/**
+	 * Finds the offset of an instance field within its object
+	 *
+	 * @param field the field to locate
+	 * @return the byte offset of the field
+	 */
+	private static long fieldOffset(Field field) {
+		return (Long) unsafe("objectFieldOffset", Field.class, field);
+	}
+
+	/**
+	 * Determines the number of bytes a field occupies, taking the reference size
+	 * from the running JVM
+	 *
+	 * @param field the field to measure
+	 * @return the size of the field in bytes
+	 */
+	private static int fieldSize(Field field) {
+		Class<?> type = field.getType();
+		if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == short.class || type == char.class) {
+			return 2;
+		} else if (type == byte.class || type == boolean.class) {
+			return 1;
+		}
+		return (Integer) unsafe("arrayIndexScale", Class.class, Object[].class);
+	}
+
+	/**
+	 * Calls a method of sun.misc.Unsafe reflectively, so the harness compiles and
+	 * runs without depending on it directly
+	 *
+	 * @param method    the name of the method
+	 * @param parameter the type of its single parameter
+	 * @param argument  the argument to pass
+	 * @return the result of the call
+	 */
+	private static Object unsafe(String method, Class<?> parameter, Object argument) {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			return unsafeClass.getMethod(method, parameter).invoke(theUnsafe.get(null), argument);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Object layout is unavailable on this JVM", e);
+		}
+	}
+
+	/**
+	 * Measures the heap in use after collecting garbage
+	 *
+	 * @return the number of bytes of live heap
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Parses a comma-separated list of sizes, allowing forms like 1e6
+	 *
+	 * @param s the list to parse
+	 * @return the sizes
+	 */
+	private static int[] parseSizes(String s) {
+		String[] parts = s.split(",");
+		int[] sizes = new int[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			sizes[i] = (int) Double.parseDouble(parts[i]);
+		}
+		return sizes;
+	}
+
+	/**
+	 * Generates n distinct keys in ascending order
+	 *
+	 * @param n   the number of keys
+	 * @param key maps a position to its key, ascending with the position
+	 * @return the sorted keys
+	 */
+	private static <K extends Comparable<K>> List<K> keys(int n, IntFunction<K> key) {
+		List<K> keys = new ArrayList<K>(n);
+		for (int i = 0; i < n; i++) {
+			keys.add(key.apply(i));
+		}
+		return keys;
+	}
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures get(int), the time to read the element at one position. Only
+ * TreeList and the sorted ArrayList have index access, so TreeSet and TreeMap
+ * are not part of this benchmark.
+ *
+ * @author Tal Belkind
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class IndexBenchmark {
+	static final int LOOKUPS = 1 << 16; // length of the cycled position sequence, a power of two
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param({ "Integer", "Long", "String" })
+	String keyType;
+
+	@Param({ "sequential", "random", "skewed" })
+	String pattern;
+
+	@Param({ "TreeList", "ArrayList" })
+	String structure;
+
+	private Subject subject; // the structure under benchmark
+	private int[] positions; // the positions to read, in order
+	private int next; // the index of the next position
+
+	/**
+	 * Builds the structure and the position sequence
+	 */
+	@Setup
+	public void setup() {
+		subject = Subject.create(structure, Keys.keys(keyType, size, 0));
+		positions = Keys.accessPattern(size, LOOKUPS, pattern);
+	}
+
+	/**
+	 * @return the element at the next position of the sequence
+	 */
+	@Benchmark
+	public Object get() {
+		return subject.get(positions[next++ & (LOOKUPS - 1)]);
+	}
+}
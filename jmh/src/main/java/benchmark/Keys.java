@@ -0,0 +1,136 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates the keys and access sequences shared by the benchmarks. Every
+ * sequence comes from a fixed seed, so each fork of a benchmark sees exactly the
+ * same inputs.
+ *
+ * @author Tal Belkind
+ *
+ */
+final class Keys {
+	static final long SEED = 230L; // seed for every generated input
+
+	/**
+	 * Not instantiable
+	 */
+	private Keys() {
+	}
+
+	/**
+	 * Creates the key of a value, ascending with the value for every key type
+	 *
+	 * @param keyType Integer, Long or String
+	 * @param value   a non-negative value
+	 * @return the key for that value
+	 */
+	static Object key(String keyType, int value) {
+		switch (keyType) {
+		case "Integer":
+			return Integer.valueOf(value);
+		case "Long":
+			return Long.valueOf((1L << 32) + value);
+		case "String":
+			return paddedString(value);
+		default:
+			throw new IllegalArgumentException("Unknown key type: " + keyType);
+		}
+	}
+
+	/**
+	 * Generates n distinct keys in ascending order: the keys of the even values
+	 * 0, 2, ..., 2(n - 1). The keys of the odd values between them are never
+	 * present, and serve as keys to insert.
+	 *
+	 * @param keyType Integer, Long or String
+	 * @param n       the number of keys
+	 * @param offset  0 for the even keys, 1 for the odd keys just above them
+	 * @return the keys in ascending order
+	 */
+	static Object[] keys(String keyType, int n, int offset) {
+		Object[] keys = new Object[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = key(keyType, 2 * i + offset);
+		}
+		return keys;
+	}
+
+	/**
+	 * Creates a String key that is zero-padded so its natural ordering matches the
+	 * numeric one
+	 *
+	 * @param value the value of the key
+	 * @return the key for that value
+	 */
+	private static String paddedString(int value) {
+		String digits = Integer.toString(value);
+		char[] padded = new char[10];
+		Arrays.fill(padded, 0, padded.length - digits.length(), '0');
+		digits.getChars(0, digits.length(), padded, padded.length - digits.length());
+		return new String(padded);
+	}
+
+	/**
+	 * Generates a sequence of positions into the keys. Sequential positions
+	 * ascend, random positions are uniform, and skewed positions follow a
+	 * power-law distribution concentrated on the low end of the keys.
+	 *
+	 * @param n       the number of keys
+	 * @param count   the length of the sequence
+	 * @param pattern sequential, random or skewed
+	 * @return the positions
+	 */
+	static int[] accessPattern(int n, int count, String pattern) {
+		Random random = new Random(SEED);
+		int[] positions = new int[count];
+		for (int i = 0; i < count; i++) {
+			switch (pattern) {
+			case "sequential":
+				positions[i] = (int) ((long) i * n / count);
+				break;
+			case "random":
+				positions[i] = random.nextInt(n);
+				break;
+			case "skewed":
+				double r = random.nextDouble();
+				positions[i] = (int) (n * r * r * r);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown access pattern: " + pattern);
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Generates a permutation of the key positions, so that each key is visited
+	 * exactly once. The sequential order ascends, the random order is a uniform
+	 * shuffle, and the skewed order ascends through blocks of 64 keys while
+	 * shuffling within each block.
+	 *
+	 * @param n       the number of keys
+	 * @param pattern sequential, random or skewed
+	 * @return the permutation
+	 */
+	static int[] permutation(int n, String pattern) {
+		Random random = new Random(SEED);
+		int[] positions = new int[n];
+		for (int i = 0; i < n; i++) {
+			positions[i] = i;
+		}
+		int block = pattern.equals("random") ? n : pattern.equals("skewed") ? 64 : 1;
+		for (int start = 0; start < n; start += block) {
+			int end = Math.min(n, start + block);
+			for (int i = end - 1; i > start; i--) {
+				int j = start + random.nextInt(i - start + 1);
+				int temp = positions[i];
+				positions[i] = positions[j];
+				positions[j] = temp;
+			}
+		}
+		return positions;
+	}
+}
@@ -0,0 +1,71 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures contains, the time to look up one key, for each structure, size, key
+ * type and access pattern. Lookups cycle through a fixed sequence of keys drawn
+ * from the access pattern.
+ *
+ * @author Tal Belkind
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class LookupBenchmark {
+	static final int LOOKUPS = 1 << 16; // length of the cycled lookup sequence, a power of two
+
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param({ "Integer", "Long", "String" })
+	String keyType;
+
+	@Param({ "sequential", "random", "skewed" })
+	String pattern;
+
+	@Param({ "TreeList", "TreeSet", "TreeMap", "ArrayList" })
+	String structure;
+
+	private Subject subject; // the structure under benchmark
+	private Object[] lookups; // the keys to look up, in order
+	private int next; // the position of the next lookup
+
+	/**
+	 * Builds the structure and the lookup sequence
+	 */
+	@Setup
+	public void setup() {
+		Object[] keys = Keys.keys(keyType, size, 0);
+		subject = Subject.create(structure, keys);
+		int[] positions = Keys.accessPattern(size, LOOKUPS, pattern);
+		lookups = new Object[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			lookups[i] = keys[positions[i]];
+		}
+	}
+
+	/**
+	 * @return whether the next key of the sequence is present, which it always is
+	 */
+	@Benchmark
+	public boolean contains() {
+		return subject.contains(lookups[next++ & (LOOKUPS - 1)]);
+	}
+}
@@ -0,0 +1,159 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures add and remove at a steady size. Each invocation inserts (or
+ * removes) a batch of BATCH distinct keys, taken in access-pattern order, and
+ * the score is the time per key. Before the next invocation, an unmeasured setup
+ * undoes the batch, so the structure always holds size elements when a batch
+ * starts. A batch is long enough that the per-invocation setup does not
+ * distort the timing.
+ *
+ * @author Tal Belkind
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class MutationBenchmark {
+	static final int BATCH = 1000; // keys added or removed per invocation, at most the smallest size
+
+	/**
+	 * A structure and a source of batches of keys
+	 */
+	@State(Scope.Thread)
+	public abstract static class Batches {
+		@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+		int size;
+
+		@Param({ "Integer", "Long", "String" })
+		String keyType;
+
+		@Param({ "sequential", "random", "skewed" })
+		String pattern;
+
+		@Param({ "TreeList", "TreeSet", "TreeMap", "ArrayList" })
+		String structure;
+
+		Subject subject; // the structure under benchmark
+		Object[] keys; // the keys the structure holds, in ascending order
+		final Object[] batch = new Object[BATCH]; // the keys of the current batch
+		private int[] order; // the order in which key positions are visited
+		private int next; // the index in order of the first key of the next batch
+		boolean pending; // true once a batch has run and must be undone
+
+		/**
+		 * Builds the structure and the visiting order
+		 */
+		@Setup(Level.Trial)
+		public void setup() {
+			keys = Keys.keys(keyType, size, 0);
+			subject = Subject.create(structure, keys);
+			order = Keys.permutation(size, pattern);
+		}
+
+		/**
+		 * Fills batch with the next BATCH keys of a key array in visiting order
+		 *
+		 * @param source the keys to draw from, indexed like keys
+		 */
+		void nextBatch(Object[] source) {
+			for (int i = 0; i < BATCH; i++) {
+				batch[i] = source[order[next]];
+				next = next + 1 == size ? 0 : next + 1;
+			}
+			pending = true;
+		}
+	}
+
+	/**
+	 * Batches of keys that are not in the structure
+	 */
+	public static class Absent extends Batches {
+		private Object[] absent; // the key just above each key of the structure
+
+		/**
+		 * Generates the keys to insert
+		 */
+		@Setup(Level.Trial)
+		public void setupAbsent() {
+			absent = Keys.keys(keyType, size, 1);
+		}
+
+		/**
+		 * Removes the previous batch and chooses the next
+		 */
+		@Setup(Level.Invocation)
+		public void prepare() {
+			if (pending) {
+				for (Object key : batch) {
+					subject.remove(key);
+				}
+			}
+			nextBatch(absent);
+		}
+	}
+
+	/**
+	 * Batches of keys that are in the structure
+	 */
+	public static class Present extends Batches {
+		/**
+		 * Restores the previous batch and chooses the next
+		 */
+		@Setup(Level.Invocation)
+		public void prepare() {
+			if (pending) {
+				for (Object key : batch) {
+					subject.add(key);
+				}
+			}
+			nextBatch(keys);
+		}
+	}
+
+	/**
+	 * Inserts a batch of keys that are not yet present
+	 *
+	 * @param batches the structure and the batch
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void add(Absent batches) {
+		Subject subject = batches.subject;
+		for (Object key : batches.batch) {
+			subject.add(key);
+		}
+	}
+
+	/**
+	 * Removes a batch of keys that are present
+	 *
+	 * @param batches the structure and the batch
+	 */
+	@Benchmark
+	@OperationsPerInvocation(BATCH)
+	public void remove(Present batches) {
+		Subject subject = batches.subject;
+		for (Object key : batches.batch) {
+			subject.remove(key);
+		}
+	}
+}
@@ -0,0 +1,328 @@
+package benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A sorted structure under benchmark, behind one interface so every structure
+ * runs the same benchmark code. Each JMH fork measures a single structure, so
+ * calls through this interface stay monomorphic and are inlined.
+ *
+ * TreeList is in the default package, which cannot be imported from a named
+ * package (and JMH does not accept benchmarks in the default package). It is
+ * therefore used through Collection where it can be, and through method handles
+ * held in static final fields for its constructors and get(int). The JIT treats
+ * those handles as constants and inlines the calls, so they cost the same as
+ * direct calls.
+ *
+ * @author Tal Belkind
+ *
+ */
+abstract class Subject {
+	private static final MethodHandle NEW_TREE_LIST; // TreeList(Collection), as (Collection)Collection
+	private static final MethodHandle COPY_TREE_LIST; // TreeList(TreeList), as (Collection)Collection
+	private static final MethodHandle GET; // TreeList.get(int), as (Collection, int)Object
+
+	static {
+		try {
+			Class<?> treeList = Class.forName("TreeList");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			NEW_TREE_LIST = lookup.findConstructor(treeList, MethodType.methodType(void.class, Collection.class))
+					.asType(MethodType.methodType(Collection.class, Collection.class));
+			COPY_TREE_LIST = lookup.findConstructor(treeList, MethodType.methodType(void.class, treeList))
+					.asType(MethodType.methodType(Collection.class, Collection.class));
+			GET = lookup.findVirtual(treeList, "get", MethodType.methodType(Object.class, int.class))
+					.asType(MethodType.methodType(Object.class, Collection.class, int.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/**
+	 * Creates a structure holding the given keys
+	 *
+	 * @param structure TreeList, TreeSet, TreeMap or ArrayList
+	 * @param keys      distinct keys in ascending order
+	 * @return the new structure
+	 */
+	static Subject create(String structure, Object[] keys) {
+		List<Object> sorted = Arrays.asList(keys);
+		switch (structure) {
+		case "TreeList":
+			try {
+				return new OfTreeList((Collection<Object>) NEW_TREE_LIST.invokeExact((Collection) sorted));
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		case "TreeSet":
+			return new OfTreeSet(new TreeSet<Object>(sorted));
+		case "TreeMap":
+			TreeMap<Object, Integer> map = new TreeMap<Object, Integer>();
+			for (Object key : keys) {
+				map.put(key, 1);
+			}
+			return new OfTreeMap(map);
+		case "ArrayList":
+			return new OfArrayList(new ArrayList<Object>(sorted));
+		default:
+			throw new IllegalArgumentException("Unknown structure: " + structure);
+		}
+	}
+
+	/**
+	 * Inserts a key in its sorted place
+	 *
+	 * @param key the key to insert
+	 */
+	abstract void add(Object key);
+
+	/**
+	 * Removes one occurrence of a key
+	 *
+	 * @param key the key to remove
+	 */
+	abstract void remove(Object key);
+
+	/**
+	 * @param key the key to look for
+	 * @return true if the structure holds the key
+	 */
+	abstract boolean contains(Object key);
+
+	/**
+	 * @param index a position in sorted order
+	 * @return the key at that position
+	 * @throws UnsupportedOperationException if the structure has no index access
+	 */
+	abstract Object get(int index);
+
+	/**
+	 * @return an iterator over the keys in ascending order
+	 */
+	abstract Iterator<?> iterator();
+
+	/**
+	 * @return the keys in ascending order
+	 */
+	abstract Object[] toArray();
+
+	/**
+	 * @return a copy made by the copy constructor of the structure
+	 */
+	abstract Object copy();
+
+	/**
+	 * TreeList, used through Collection and method handles
+	 */
+	private static final class OfTreeList extends Subject {
+		private final Collection<Object> list; // the TreeList
+
+		OfTreeList(Collection<Object> list) {
+			this.list = list;
+		}
+
+		@Override
+		void add(Object key) {
+			list.add(key);
+		}
+
+		@Override
+		void remove(Object key) {
+			list.remove(key);
+		}
+
+		@Override
+		boolean contains(Object key) {
+			return list.contains(key);
+		}
+
+		@Override
+		Object get(int index) {
+			try {
+				return GET.invokeExact(list, index);
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		}
+
+		@Override
+		Iterator<?> iterator() {
+			return list.iterator();
+		}
+
+		@Override
+		Object[] toArray() {
+			return list.toArray();
+		}
+
+		@Override
+		Object copy() {
+			try {
+				return (Collection<?>) COPY_TREE_LIST.invokeExact((Collection) list);
+			} catch (Throwable t) {
+				throw new IllegalStateException(t);
+			}
+		}
+	}
+
+	/**
+	 * TreeSet, which has no index access
+	 */
+	private static final class OfTreeSet extends Subject {
+		private final TreeSet<Object> set; // the TreeSet
+
+		OfTreeSet(TreeSet<Object> set) {
+			this.set = set;
+		}
+
+		@Override
+		void add(Object key) {
+			set.add(key);
+		}
+
+		@Override
+		void remove(Object key) {
+			set.remove(key);
+		}
+
+		@Override
+		boolean contains(Object key) {
+			return set.contains(key);
+		}
+
+		@Override
+		Object get(int index) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		Iterator<?> iterator() {
+			return set.iterator();
+		}
+
+		@Override
+		Object[] toArray() {
+			return set.toArray();
+		}
+
+		@Override
+		Object copy() {
+			return new TreeSet<Object>(set);
+		}
+	}
+
+	/**
+	 * TreeMap used as a multiset from key to number of occurrences, which has no
+	 * index access
+	 */
+	private static final class OfTreeMap extends Subject {
+		private final TreeMap<Object, Integer> map; // the TreeMap
+
+		OfTreeMap(TreeMap<Object, Integer> map) {
+			this.map = map;
+		}
+
+		@Override
+		void add(Object key) {
+			map.merge(key, 1, Integer::sum);
+		}
+
+		@Override
+		void remove(Object key) {
+			map.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+		}
+
+		@Override
+		boolean contains(Object key) {
+			return map.containsKey(key);
+		}
+
+		@Override
+		Object get(int index) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		Iterator<?> iterator() {
+			return map.keySet().iterator();
+		}
+
+		@Override
+		Object[] toArray() {
+			return map.keySet().toArray();
+		}
+
+		@Override
+		Object copy() {
+			return new TreeMap<Object, Integer>(map);
+		}
+	}
+
+	/**
+	 * A sorted ArrayList searched with Collections.binarySearch
+	 */
+	private static final class OfArrayList extends Subject {
+		private final ArrayList<Object> list; // the sorted ArrayList
+
+		OfArrayList(ArrayList<Object> list) {
+			this.list = list;
+		}
+
+		/**
+		 * @param key the key to find
+		 * @return the result of Collections.binarySearch for the key
+		 */
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private int search(Object key) {
+			return Collections.binarySearch((List) list, key);
+		}
+
+		@Override
+		void add(Object key) {
+			int pos = search(key);
+			list.add(pos < 0 ? -pos - 1 : pos, key);
+		}
+
+		@Override
+		void remove(Object key) {
+			int pos = search(key);
+			if (pos >= 0) {
+				list.remove(pos);
+			}
+		}
+
+		@Override
+		boolean contains(Object key) {
+			return search(key) >= 0;
+		}
+
+		@Override
+		Object get(int index) {
+			return list.get(index);
+		}
+
+		@Override
+		Iterator<?> iterator() {
+			return list.iterator();
+		}
+
+		@Override
+		Object[] toArray() {
+			return list.toArray();
+		}
+
+		@Override
+		Object copy() {
+			return new ArrayList<Object>(list);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package benchmark;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the operations that visit every element: iteration, toArray and the
+ * copy constructor. Each score is the time for one pass over the whole
+ * structure, so the access pattern does not apply.
+ *
+ * @author Tal Belkind
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class TraversalBenchmark {
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	int size;
+
+	@Param({ "Integer", "Long", "String" })
+	String keyType;
+
+	@Param({ "TreeList", "TreeSet", "TreeMap", "ArrayList" })
+	String structure;
+
+	private Subject subject; // the structure under benchmark
+
+	/**
+	 * Builds the structure
+	 */
+	@Setup
+	public void setup() {
+		subject = Subject.create(structure, Keys.keys(keyType, size, 0));
+	}
+
+	/**
+	 * Walks the structure with its iterator
+	 *
+	 * @param blackhole consumes every element
+	 */
+	@Benchmark
+	public void iterate(Blackhole blackhole) {
+		Iterator<?> it = subject.iterator();
+		while (it.hasNext()) {
+			blackhole.consume(it.next());
+		}
+	}
+
+	/**
+	 * @return the elements of the structure in an array
+	 */
+	@Benchmark
+	public Object[] toArray() {
+		return subject.toArray();
+	}
+
+	/**
+	 * @return a copy of the structure
+	 */
+	@Benchmark
+	public Object copy() {
+		return subject.copy();
+	}
+}